@@ -0,0 +1,50 @@
+package project_idea.idea.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import project_idea.idea.utils.LanguageUtils;
+
+import java.util.stream.Collectors;
+
+/**
+ * Adds the full-text search column and its GIN index to the posts table. Hibernate's ddl-auto
+ * can't declare generated columns, so they are created here, once, with IF NOT EXISTS.
+ */
+@Component
+@Order(3) // Execute after CategoryInitializer
+public class PostSearchIndexInitializer implements CommandLineRunner {
+    private static final Logger logger = LoggerFactory.getLogger(PostSearchIndexInitializer.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        try {
+            jdbcTemplate.execute("ALTER TABLE posts ADD COLUMN IF NOT EXISTS search_vector tsvector " +
+                    "GENERATED ALWAYS AS (" + searchVectorExpression() + ") STORED");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_posts_search_vector ON posts USING GIN (search_vector)");
+            logger.info("Post search index is ready");
+        } catch (Exception e) {
+            logger.error("Error initializing post search index: " + e.getMessage());
+            throw new RuntimeException("Failed to initialize post search index", e);
+        }
+    }
+
+    // Title (weight A) and description (weight B) are stemmed with the post's own language, and the
+    // unstemmed "simple" words are added too, so a search without a language still matches every post
+    private String searchVectorExpression() {
+        String config = LanguageUtils.getSupportedLanguages().stream()
+                .sorted()
+                .map(code -> "WHEN '" + code + "' THEN '" + LanguageUtils.getTextSearchConfig(code) + "'::regconfig")
+                .collect(Collectors.joining(" ", "CASE language ", " ELSE '" + LanguageUtils.DEFAULT_TEXT_SEARCH_CONFIG + "'::regconfig END"));
+        return "setweight(to_tsvector(" + config + ", coalesce(title, '')), 'A') || " +
+               "setweight(to_tsvector(" + config + ", coalesce(description, '')), 'B') || " +
+               "to_tsvector('" + LanguageUtils.DEFAULT_TEXT_SEARCH_CONFIG + "'::regconfig, coalesce(title, '') || ' ' || coalesce(description, ''))";
+    }
+}
@@ -0,0 +1,44 @@
+package project_idea.idea.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import project_idea.idea.repositories.MultipleChoiceSurveyRepository;
+import project_idea.idea.services.SurveyTallyService;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Creates the tally rows of surveys that were created before tallies existed, so reading
+ * statistics never has to write. Surveys that already have tallies are left alone.
+ */
+@Component
+@Order(4) // Execute after PostSearchIndexInitializer
+public class SurveyTallyInitializer implements CommandLineRunner {
+    private static final Logger logger = LoggerFactory.getLogger(SurveyTallyInitializer.class);
+
+    @Autowired
+    private MultipleChoiceSurveyRepository surveyRepository;
+
+    @Autowired
+    private SurveyTallyService surveyTallyService;
+
+    @Override
+    public void run(String... args) {
+        List<UUID> surveyIds = surveyRepository.findIdsWithoutTallies();
+        for (UUID surveyId : surveyIds) {
+            try {
+                surveyTallyService.rebuild(surveyId);
+            } catch (RuntimeException e) {
+                logger.error("Failed to backfill tallies for survey {}: {}", surveyId, e.getMessage());
+            }
+        }
+        if (!surveyIds.isEmpty()) {
+            logger.info("Backfilled tallies for {} multiple choice surveys", surveyIds.size());
+        }
+    }
+}
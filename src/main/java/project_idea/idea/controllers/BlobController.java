@@ -0,0 +1,49 @@
+package project_idea.idea.controllers;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import project_idea.idea.exceptions.NotFoundException;
+import project_idea.idea.services.LocalBlobStore;
+
+import java.time.Duration;
+
+// Only exists with storage.backend=local; Cloudinary serves its own URLs
+@RestController
+@RequestMapping("/blobs")
+@Tag(name = "Blobs", description = "Files stored by the local storage backend")
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+public class BlobController {
+    @Autowired
+    private LocalBlobStore localBlobStore;
+
+    // Returning the Resource lets Spring answer Range requests with just the requested parts
+    @GetMapping("/{*publicId}")
+    @Operation(summary = "Download a stored file", description = "Supports Range requests")
+    public ResponseEntity<Resource> getBlob(@PathVariable String publicId) {
+        Resource resource;
+        try {
+            resource = localBlobStore.open(publicId.startsWith("/") ? publicId.substring(1) : publicId);
+        } catch (IllegalArgumentException e) {
+            throw new NotFoundException("File not found");
+        }
+        if (!resource.isReadable()) {
+            throw new NotFoundException("File not found");
+        }
+        // Blob ids are never reused, so the content behind a URL never changes
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                .contentType(MediaTypeFactory.getMediaType(resource).orElse(MediaType.APPLICATION_OCTET_STREAM))
+                .body(resource);
+    }
+}
@@ -12,9 +12,11 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import project_idea.idea.entities.ModeratorAction;
 import project_idea.idea.entities.User;
+import project_idea.idea.security.PrincipalCache;
 import project_idea.idea.services.ModeratorService;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -26,6 +28,9 @@ public class ModeratorController {
     @Autowired
     private ModeratorService moderatorService;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
     @PostMapping("/users/{userId}/ban")
     @ResponseStatus(HttpStatus.CREATED)
     @Operation(summary = "Ban a user")
@@ -108,4 +113,10 @@ public class ModeratorController {
             @AuthenticationPrincipal User moderator) {
         moderatorService.unhidePost(postId, moderator);
     }
+
+    @GetMapping("/principal-cache/stats")
+    @Operation(summary = "Get authenticated-principal cache hit/miss counters")
+    public Map<String, Long> getPrincipalCacheStats() {
+        return principalCache.getStats();
+    }
 }
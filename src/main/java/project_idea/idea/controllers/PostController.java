@@ -8,12 +8,14 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
@@ -28,11 +30,16 @@ import project_idea.idea.services.PostService;
 import project_idea.idea.enums.PostType;
 import project_idea.idea.enums.SortDirection;
 import project_idea.idea.config.PostResourceAssembler;
+import project_idea.idea.payloads.post.PostSearchResults;
+import project_idea.idea.payloads.post.PostSummary;
+import project_idea.idea.utils.FeedCursor;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
@@ -70,9 +77,33 @@ public class PostController {
             @Parameter(description = "Filter posts by type", 
                       schema = @Schema(implementation = PostType.class))
             PostType type,
+            @RequestParam(defaultValue = "true")
+            @Parameter(description = "Set to false to skip the total count query; the response then only reports hasNext")
+            boolean withCount,
+            @RequestParam(required = false)
+            @Parameter(description = "Continuation token from a previous response's nextCursor; use instead of page for keyset pagination")
+            String cursor,
+            @RequestParam(defaultValue = "false")
+            @Parameter(description = "Return lightweight post cards instead of full posts (page mode with counts only)")
+            boolean summary,
             @AuthenticationPrincipal User currentUser) {
 
-        Page<Post> postPage = postService.getAllPosts(page, size, sortBy, direction, language, type, currentUser);
+        if (summary) {
+            validateSummaryMode(cursor, withCount);
+            Page<PostSummary> summaryPage = postService.getAllPostSummaries(page, size, sortBy, direction, language, type);
+            return ResponseEntity.ok(buildSummaryResponse(summaryPage, targetPage ->
+                    linkTo(methodOn(PostController.class).getAllPosts(targetPage, size, sortBy, direction, language, type, withCount, null, true, currentUser))));
+        }
+
+        if (cursor != null) {
+            Slice<Post> postSlice = postService.getAllPostsAfter(cursor, size, sortBy, direction, language, type);
+            Map<String, Object> response = buildCursorResponse(postSlice, nextCursor ->
+                    linkTo(methodOn(PostController.class).getAllPosts(page, size, sortBy, direction, language, type, withCount, nextCursor, false, currentUser)));
+            response.put("selfLink", linkTo(methodOn(PostController.class).getAllPosts(page, size, sortBy, direction, language, type, withCount, cursor, false, currentUser)).withSelfRel().getHref());
+            return ResponseEntity.ok(response);
+        }
+
+        Slice<Post> postPage = postService.getAllPosts(page, size, sortBy, direction, language, type, withCount, currentUser);
 
         List<EntityModel<Post>> postModels = postPage.getContent().stream()
                 .map(postResourceAssembler::toModel)
@@ -81,16 +112,19 @@ public class PostController {
         Map<String, Object> response = new HashMap<>();
         response.put("posts", postModels);
         response.put("currentPage", postPage.getNumber());
-        response.put("totalItems", postPage.getTotalElements());
-        response.put("totalPages", postPage.getTotalPages());
+        response.put("hasNext", postPage.hasNext());
+        if (postPage instanceof Page<Post> countedPage) {
+            response.put("totalItems", countedPage.getTotalElements());
+            response.put("totalPages", countedPage.getTotalPages());
+        }
 
-        Link selfLink = linkTo(methodOn(PostController.class).getAllPosts(page, size, sortBy, direction, language, type, currentUser)).withSelfRel();
+        Link selfLink = linkTo(methodOn(PostController.class).getAllPosts(page, size, sortBy, direction, language, type, withCount, null, false, currentUser)).withSelfRel();
         if (postPage.hasNext()) {
-            Link nextLink = linkTo(methodOn(PostController.class).getAllPosts(page + 1, size, sortBy, direction, language, type, currentUser)).withRel("next");
+            Link nextLink = linkTo(methodOn(PostController.class).getAllPosts(page + 1, size, sortBy, direction, language, type, withCount, null, false, currentUser)).withRel("next");
             response.put("nextPage", nextLink.getHref());
         }
         if (postPage.hasPrevious()) {
-            Link prevLink = linkTo(methodOn(PostController.class).getAllPosts(page - 1, size, sortBy, direction, language, type, currentUser)).withRel("prev");
+            Link prevLink = linkTo(methodOn(PostController.class).getAllPosts(page - 1, size, sortBy, direction, language, type, withCount, null, false, currentUser)).withRel("prev");
             response.put("prevPage", prevLink.getHref());
         }
         response.put("selfLink", selfLink.getHref());
@@ -105,6 +139,39 @@ public class PostController {
         return postService.getPostById(id);
     }
 
+    @GetMapping("/search")
+    @Operation(summary = "Search posts by title and description",
+               description = "Results are ordered by relevance and paged with the nextCursor of the previous response")
+    public ResponseEntity<Map<String, Object>> searchPosts(
+            @RequestParam @Parameter(description = "Search text; supports quoted phrases, OR and -exclusions") String q,
+            @RequestParam(required = false)
+            @Parameter(description = "Restrict to posts in this language and match word forms for it") String language,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false)
+            @Parameter(description = "Continuation token from a previous response's nextCursor") String cursor,
+            @RequestParam(defaultValue = "false")
+            @Parameter(description = "Also return match counts per type, language and category") boolean facets) {
+
+        PostSearchResults results = postService.searchPosts(q, language, cursor, size, facets);
+
+        List<EntityModel<Post>> postModels = results.posts().stream()
+                .map(postResourceAssembler::toModel)
+                .collect(Collectors.toList());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("posts", postModels);
+        response.put("hasNext", results.hasNext());
+        if (results.facets() != null) {
+            response.put("facets", results.facets());
+        }
+        if (results.hasNext()) {
+            response.put("nextCursor", results.nextCursor());
+            response.put("nextPage", linkTo(methodOn(PostController.class).searchPosts(q, language, size, results.nextCursor(), facets)).withRel("next").getHref());
+        }
+        response.put("selfLink", linkTo(methodOn(PostController.class).searchPosts(q, language, size, cursor, facets)).withSelfRel().getHref());
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/profile/{profileId}")
     @Operation(summary = "Get posts by social profile")
     public ResponseEntity<Map<String, Object>> getPostsBySocialProfile(
@@ -115,9 +182,23 @@ public class PostController {
             @RequestParam(defaultValue = "DESC") 
             @Parameter(description = "Sort direction (ASC or DESC)") SortDirection direction,
             @Nullable @AuthenticationPrincipal User currentUser,
-            @RequestParam(required = false) PostType type) {
+            @RequestParam(required = false) PostType type,
+            @RequestParam(defaultValue = "true")
+            @Parameter(description = "Set to false to skip the total count query; the response then only reports hasNext")
+            boolean withCount,
+            @RequestParam(required = false)
+            @Parameter(description = "Continuation token from a previous response's nextCursor; use instead of page for keyset pagination")
+            String cursor) {
+
+        if (cursor != null) {
+            Slice<Post> postSlice = postService.getPostsBySocialProfileAfter(profileId, cursor, size, sortBy, direction, type, currentUser);
+            Map<String, Object> response = buildCursorResponse(postSlice, nextCursor ->
+                    linkTo(methodOn(PostController.class).getPostsBySocialProfile(profileId, page, size, sortBy, direction, currentUser, type, withCount, nextCursor)));
+            response.put("selfLink", linkTo(methodOn(PostController.class).getPostsBySocialProfile(profileId, page, size, sortBy, direction, currentUser, type, withCount, cursor)).withSelfRel().getHref());
+            return ResponseEntity.ok(response);
+        }
 
-        Page<Post> postPage = postService.getPostsBySocialProfile(profileId, page, size, sortBy, direction, type, currentUser);
+        Slice<Post> postPage = postService.getPostsBySocialProfile(profileId, page, size, sortBy, direction, type, withCount, currentUser);
 
         List<EntityModel<Post>> postModels = postPage.getContent().stream()
                 .map(postResourceAssembler::toModel)
@@ -126,16 +207,19 @@ public class PostController {
         Map<String, Object> response = new HashMap<>();
         response.put("posts", postModels);
         response.put("currentPage", postPage.getNumber());
-        response.put("totalItems", postPage.getTotalElements());
-        response.put("totalPages", postPage.getTotalPages());
+        response.put("hasNext", postPage.hasNext());
+        if (postPage instanceof Page<Post> countedPage) {
+            response.put("totalItems", countedPage.getTotalElements());
+            response.put("totalPages", countedPage.getTotalPages());
+        }
 
-        Link selfLink = linkTo(methodOn(PostController.class).getPostsBySocialProfile(profileId, page, size, sortBy, direction, currentUser, type)).withSelfRel();
+        Link selfLink = linkTo(methodOn(PostController.class).getPostsBySocialProfile(profileId, page, size, sortBy, direction, currentUser, type, withCount, null)).withSelfRel();
         if (postPage.hasNext()) {
-            Link nextLink = linkTo(methodOn(PostController.class).getPostsBySocialProfile(profileId, page + 1, size, sortBy, direction, currentUser, type)).withRel("next");
+            Link nextLink = linkTo(methodOn(PostController.class).getPostsBySocialProfile(profileId, page + 1, size, sortBy, direction, currentUser, type, withCount, null)).withRel("next");
             response.put("nextPage", nextLink.getHref());
         }
         if (postPage.hasPrevious()) {
-            Link prevLink = linkTo(methodOn(PostController.class).getPostsBySocialProfile(profileId, page - 1, size, sortBy, direction, currentUser, type)).withRel("prev");
+            Link prevLink = linkTo(methodOn(PostController.class).getPostsBySocialProfile(profileId, page - 1, size, sortBy, direction, currentUser, type, withCount, null)).withRel("prev");
             response.put("prevPage", prevLink.getHref());
         }
         response.put("selfLink", selfLink.getHref());
@@ -153,9 +237,12 @@ public class PostController {
             @RequestParam(defaultValue = "DESC") 
             @Parameter(description = "Sort direction (ASC or DESC)") SortDirection direction,
             @RequestParam(required = false) PostType type,
+            @RequestParam(defaultValue = "true")
+            @Parameter(description = "Set to false to skip the total count query; the response then only reports hasNext")
+            boolean withCount,
             @AuthenticationPrincipal User currentUser) {
 
-        Page<Post> postPage = postService.getMyPosts(currentUser, page, size, sortBy, direction, type);
+        Slice<Post> postPage = postService.getMyPosts(currentUser, page, size, sortBy, direction, type, withCount);
 
         List<EntityModel<Post>> postModels = postPage.getContent().stream()
                 .map(postResourceAssembler::toModel)
@@ -164,16 +251,19 @@ public class PostController {
         Map<String, Object> response = new HashMap<>();
         response.put("posts", postModels);
         response.put("currentPage", postPage.getNumber());
-        response.put("totalItems", postPage.getTotalElements());
-        response.put("totalPages", postPage.getTotalPages());
+        response.put("hasNext", postPage.hasNext());
+        if (postPage instanceof Page<Post> countedPage) {
+            response.put("totalItems", countedPage.getTotalElements());
+            response.put("totalPages", countedPage.getTotalPages());
+        }
 
-        Link selfLink = linkTo(methodOn(PostController.class).getMyPosts(page, size, sortBy, direction, type, currentUser)).withSelfRel();
+        Link selfLink = linkTo(methodOn(PostController.class).getMyPosts(page, size, sortBy, direction, type, withCount, currentUser)).withSelfRel();
         if (postPage.hasNext()) {
-            Link nextLink = linkTo(methodOn(PostController.class).getMyPosts(page + 1, size, sortBy, direction, type, currentUser)).withRel("next");
+            Link nextLink = linkTo(methodOn(PostController.class).getMyPosts(page + 1, size, sortBy, direction, type, withCount, currentUser)).withRel("next");
             response.put("nextPage", nextLink.getHref());
         }
         if (postPage.hasPrevious()) {
-            Link prevLink = linkTo(methodOn(PostController.class).getMyPosts(page - 1, size, sortBy, direction, type, currentUser)).withRel("prev");
+            Link prevLink = linkTo(methodOn(PostController.class).getMyPosts(page - 1, size, sortBy, direction, type, withCount, currentUser)).withRel("prev");
             response.put("prevPage", prevLink.getHref());
         }
         response.put("selfLink", selfLink.getHref());
@@ -183,25 +273,54 @@ public class PostController {
 
     @PatchMapping(path = "/{postId}/featured-image", consumes = "multipart/form-data")
     @Operation(summary = "Upload or update post featured image")
-    public Post uploadFeaturedImage(@PathVariable UUID postId,
-                                    @RequestParam("image") MultipartFile file,
-                                    @RequestParam(required = false) String altText,
-                                    @AuthenticationPrincipal User currentUser) {
-        return postService.uploadFeaturedImage(postId, file, altText, currentUser);
+    public ResponseEntity<?> uploadFeaturedImage(@PathVariable UUID postId,
+                                                 @RequestParam("image") MultipartFile file,
+                                                 @RequestParam(required = false) String altText,
+                                                 @RequestParam(defaultValue = "false")
+                                                 @Parameter(description = "Return 202 with an upload job instead of waiting for storage; poll /uploads/{jobId}")
+                                                 boolean async,
+                                                 @AuthenticationPrincipal User currentUser) {
+        if (async) {
+            return ResponseEntity.accepted().body(postService.uploadFeaturedImageAsync(postId, file, altText, currentUser));
+        }
+        return ResponseEntity.ok(postService.uploadFeaturedImage(postId, file, altText, currentUser));
     }
 
     @GetMapping("/suggested")
-    @Operation(summary = "Get suggested posts based on user type")
+    @Operation(summary = "Get suggested posts based on user type",
+               description = "Posts are ranked by relevance to the user's interests, language and type, then continue newest first. " +
+                             "When the feed inbox is enabled, posts are newest first and only cursor pagination is available")
     @SecurityRequirement(name = "bearerAuth")
     public ResponseEntity<Map<String, Object>> getSuggestedPosts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "DESC") 
-            @Parameter(description = "Sort direction (ASC or DESC)") SortDirection direction,
+            @RequestParam(defaultValue = "true")
+            @Parameter(description = "Set to false to skip the total count query; the response then only reports hasNext")
+            boolean withCount,
+            @RequestParam(required = false)
+            @Parameter(description = "Continuation token from a previous response's nextCursor; use instead of page for keyset pagination")
+            String cursor,
+            @RequestParam(defaultValue = "false")
+            @Parameter(description = "Return lightweight post cards instead of full posts (page mode with counts only)")
+            boolean summary,
             @AuthenticationPrincipal User currentUser) {
 
-        Page<Post> postPage = postService.getSuggestedPosts(currentUser, page, size, sortBy, direction);
+        if (summary) {
+            validateSummaryMode(cursor, withCount);
+            Page<PostSummary> summaryPage = postService.getSuggestedPostSummaries(currentUser, page, size);
+            return ResponseEntity.ok(buildSummaryResponse(summaryPage, targetPage ->
+                    linkTo(methodOn(PostController.class).getSuggestedPosts(targetPage, size, withCount, null, true, currentUser))));
+        }
+
+        if (cursor != null || postService.isSuggestedInboxEnabled()) {
+            Slice<Post> postSlice = postService.getSuggestedPostsAfter(currentUser, cursor, size);
+            Map<String, Object> response = buildCursorResponse(postSlice, nextCursor ->
+                    linkTo(methodOn(PostController.class).getSuggestedPosts(page, size, withCount, nextCursor, false, currentUser)));
+            response.put("selfLink", linkTo(methodOn(PostController.class).getSuggestedPosts(page, size, withCount, cursor, false, currentUser)).withSelfRel().getHref());
+            return ResponseEntity.ok(response);
+        }
+
+        Slice<Post> postPage = postService.getSuggestedPosts(currentUser, page, size, withCount);
 
         List<EntityModel<Post>> postModels = postPage.getContent().stream()
                 .map(postResourceAssembler::toModel)
@@ -210,20 +329,70 @@ public class PostController {
         Map<String, Object> response = new HashMap<>();
         response.put("posts", postModels);
         response.put("currentPage", postPage.getNumber());
-        response.put("totalItems", postPage.getTotalElements());
-        response.put("totalPages", postPage.getTotalPages());
+        response.put("hasNext", postPage.hasNext());
+        if (postPage instanceof Page<Post> countedPage) {
+            response.put("totalItems", countedPage.getTotalElements());
+            response.put("totalPages", countedPage.getTotalPages());
+        }
 
-        Link selfLink = linkTo(methodOn(PostController.class).getSuggestedPosts(page, size, sortBy, direction, currentUser)).withSelfRel();
+        Link selfLink = linkTo(methodOn(PostController.class).getSuggestedPosts(page, size, withCount, null, false, currentUser)).withSelfRel();
         if (postPage.hasNext()) {
-            Link nextLink = linkTo(methodOn(PostController.class).getSuggestedPosts(page + 1, size, sortBy, direction, currentUser)).withRel("next");
+            Link nextLink = linkTo(methodOn(PostController.class).getSuggestedPosts(page + 1, size, withCount, null, false, currentUser)).withRel("next");
             response.put("nextPage", nextLink.getHref());
         }
         if (postPage.hasPrevious()) {
-            Link prevLink = linkTo(methodOn(PostController.class).getSuggestedPosts(page - 1, size, sortBy, direction, currentUser)).withRel("prev");
+            Link prevLink = linkTo(methodOn(PostController.class).getSuggestedPosts(page - 1, size, withCount, null, false, currentUser)).withRel("prev");
             response.put("prevPage", prevLink.getHref());
         }
         response.put("selfLink", selfLink.getHref());
 
         return ResponseEntity.ok(response);
     }
+
+    // Cursor responses have no page numbers or totals; the next link carries the continuation token
+    private Map<String, Object> buildCursorResponse(Slice<Post> postSlice, Function<String, WebMvcLinkBuilder> linkForCursor) {
+        List<EntityModel<Post>> postModels = postSlice.getContent().stream()
+                .map(postResourceAssembler::toModel)
+                .collect(Collectors.toList());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("posts", postModels);
+        response.put("hasNext", postSlice.hasNext());
+        if (postSlice.hasNext()) {
+            Post last = postSlice.getContent().get(postSlice.getNumberOfElements() - 1);
+            String nextCursor = new FeedCursor(last.getCreatedAt(), last.getId()).encode();
+            response.put("nextCursor", nextCursor);
+            response.put("nextPage", linkForCursor.apply(nextCursor).withRel("next").getHref());
+        }
+        return response;
+    }
+
+    // Summaries are plain projections paged with a count query; keyset and count-less modes stay entity-based
+    private void validateSummaryMode(String cursor, boolean withCount) {
+        if (cursor != null || !withCount) {
+            throw new BadRequestException("summary=true cannot be combined with cursor or withCount=false");
+        }
+    }
+
+    private Map<String, Object> buildSummaryResponse(Page<PostSummary> summaryPage, IntFunction<WebMvcLinkBuilder> linkForPage) {
+        List<EntityModel<PostSummary>> summaryModels = summaryPage.getContent().stream()
+                .map(postSummary -> EntityModel.of(postSummary,
+                        linkTo(methodOn(PostController.class).getPostById(postSummary.id())).withSelfRel()))
+                .collect(Collectors.toList());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("posts", summaryModels);
+        response.put("currentPage", summaryPage.getNumber());
+        response.put("hasNext", summaryPage.hasNext());
+        response.put("totalItems", summaryPage.getTotalElements());
+        response.put("totalPages", summaryPage.getTotalPages());
+        if (summaryPage.hasNext()) {
+            response.put("nextPage", linkForPage.apply(summaryPage.getNumber() + 1).withRel("next").getHref());
+        }
+        if (summaryPage.hasPrevious()) {
+            response.put("prevPage", linkForPage.apply(summaryPage.getNumber() - 1).withRel("prev").getHref());
+        }
+        response.put("selfLink", linkForPage.apply(summaryPage.getNumber()).withSelfRel().getHref());
+        return response;
+    }
 }
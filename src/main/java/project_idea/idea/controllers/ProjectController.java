@@ -1,15 +1,23 @@
 package project_idea.idea.controllers;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import project_idea.idea.entities.Attachment;
 import project_idea.idea.entities.Project;
@@ -21,6 +29,8 @@ import project_idea.idea.payloads.project.NewProjectDTO;
 import project_idea.idea.services.AttachmentService;
 import project_idea.idea.services.ProjectService;
 
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.UUID;
 
@@ -72,7 +82,6 @@ public class ProjectController {
     }
 
     @PostMapping(path = "/{projectId}/attachments", consumes = "multipart/form-data")
-    @ResponseStatus(HttpStatus.CREATED)
     @Operation(
         summary = "Upload project attachment",
         description = "Upload a file attachment to a project. Max file size: 10MB. " +
@@ -84,15 +93,21 @@ public class ProjectController {
             @ApiResponse(responseCode = "401", description = "Unauthorized"),
             @ApiResponse(responseCode = "500", description = "Error uploading file")
     })
-    public Attachment uploadAttachment(
+    public ResponseEntity<?> uploadAttachment(
             @PathVariable UUID projectId,
             @RequestPart(name = "file", required = true) MultipartFile file,
+            @RequestParam(defaultValue = "false")
+            @Parameter(description = "Return 202 with an upload job instead of waiting for storage; poll /uploads/{jobId}")
+            boolean async,
             @AuthenticationPrincipal User currentUser) {
         if (file == null || file.isEmpty()) {
             throw new BadRequestException("No file was uploaded");
         }
 
-        return attachmentService.uploadAttachment(projectId, file, currentUser);
+        if (async) {
+            return ResponseEntity.accepted().body(attachmentService.uploadAttachmentAsync(projectId, file, currentUser));
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(attachmentService.uploadAttachment(projectId, file, currentUser));
     }
 
     @GetMapping("/{projectId}/attachments")
@@ -104,6 +119,43 @@ public class ProjectController {
         return attachmentService.getProjectAttachments(projectId);
     }
 
+    @GetMapping("/{projectId}/attachments/{attachmentId}/content")
+    @Operation(
+        summary = "Download project attachment",
+        description = "Streams the attachment file. Supports Range requests and conditional GETs with If-None-Match or If-Modified-Since"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "File content"),
+            @ApiResponse(responseCode = "206", description = "Requested ranges of the file"),
+            @ApiResponse(responseCode = "304", description = "File unchanged since the validators sent"),
+            @ApiResponse(responseCode = "404", description = "Attachment not found")
+    })
+    public ResponseEntity<Resource> downloadAttachment(@PathVariable UUID projectId, @PathVariable UUID attachmentId,
+                                                       WebRequest request) {
+        Attachment attachment = attachmentService.getProjectAttachment(projectId, attachmentId);
+
+        // Attachment content never changes, so its hash (or its id for rows stored before hashing) is a strong validator
+        String etag = attachment.getContentHash() != null ? attachment.getContentHash() : attachment.getId().toString();
+        long lastModified = attachment.getUploadedAt() != null
+                ? attachment.getUploadedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+        // Answered before the file is opened, so a 304 never touches storage
+        if (request.checkNotModified(etag, lastModified)) {
+            return null;
+        }
+
+        // Spring serves Range requests from the Resource, reading only the requested parts
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.parseMediaType(attachment.getFileType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(attachment.getFileName(), StandardCharsets.UTF_8).build().toString());
+        if (lastModified >= 0) {
+            response.lastModified(lastModified);
+        }
+        return response.body(attachmentService.openAttachment(attachment));
+    }
+
     @DeleteMapping("/{projectId}/attachments/{attachmentId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @Operation(
@@ -18,6 +18,7 @@ import project_idea.idea.entities.SocialProfile;
 import project_idea.idea.entities.User;
 import project_idea.idea.exceptions.UnauthorizedException;
 import project_idea.idea.payloads.socialProfile.PartialSocialProfileUpdateDTO;
+import project_idea.idea.payloads.socialProfile.ProfileSummary;
 import project_idea.idea.payloads.socialProfile.SocialProfileUpdateDTO;
 import project_idea.idea.services.SocialProfileService;
 
@@ -25,6 +26,8 @@ import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.data.web.PagedResourcesAssembler;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/social-profiles")
 @Tag(name = "Social Profiles", description = "APIs for managing user social profiles")
@@ -38,6 +41,18 @@ public class SocialProfileController {
     @Autowired
     private PagedResourcesAssembler<SocialProfile> pagedResourcesAssembler;
 
+    @Autowired
+    private PagedResourcesAssembler<ProfileSummary> summaryPagedResourcesAssembler;
+
+    @GetMapping("/suggest")
+    @Operation(summary = "Suggest profiles whose username starts with a prefix", description = "Used for @mention lookups")
+    @SecurityRequirement(name = "bearerAuth")
+    public List<ProfileSummary> suggestProfiles(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") @Parameter(description = "Maximum number of suggestions (at most 20)") int limit) {
+        return socialProfileService.suggestProfiles(prefix, limit);
+    }
+
     @GetMapping("/{username}")
     @Operation(summary = "Get user's public profile by username")
     public SocialProfile getProfileByUsername(@PathVariable String username) {
@@ -73,13 +88,20 @@ public class SocialProfileController {
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Avatar successfully uploaded"),
+        @ApiResponse(responseCode = "202", description = "Upload accepted (async=true)"),
         @ApiResponse(responseCode = "400", description = "Invalid file format or size"),
         @ApiResponse(responseCode = "401", description = "Unauthorized"),
         @ApiResponse(responseCode = "500", description = "Error uploading file")
     })
-    public SocialProfile uploadAvatar(@AuthenticationPrincipal User currentUser,
-                                      @RequestParam(name = "avatar", required = true) MultipartFile file) {
-        return this.socialProfileService.uploadAvatar(currentUser.getId(), file);
+    public ResponseEntity<?> uploadAvatar(@AuthenticationPrincipal User currentUser,
+                                          @RequestParam(name = "avatar", required = true) MultipartFile file,
+                                          @RequestParam(defaultValue = "false")
+                                          @Parameter(description = "Return 202 with an upload job instead of waiting for storage; poll /uploads/{jobId}")
+                                          boolean async) {
+        if (async) {
+            return ResponseEntity.accepted().body(this.socialProfileService.uploadAvatarAsync(currentUser, file));
+        }
+        return ResponseEntity.ok(this.socialProfileService.uploadAvatar(currentUser.getId(), file));
     }
 
     @GetMapping
@@ -89,14 +111,19 @@ public class SocialProfileController {
         parameters = {
             @Parameter(name = "page", description = "Page number (0-based)", example = "0"),
             @Parameter(name = "size", description = "Number of items per page", example = "10"),
-            @Parameter(name = "sortBy", description = "Field to sort by", example = "username")
+            @Parameter(name = "sortBy", description = "Field to sort by", example = "username"),
+            @Parameter(name = "summary", description = "Return lightweight profile cards instead of full profiles", example = "false")
         }
     )
-    public PagedModel<EntityModel<SocialProfile>> getAllProfiles(
+    public PagedModel<?> getAllProfiles(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "username") String sortBy
+            @RequestParam(defaultValue = "username") String sortBy,
+            @RequestParam(defaultValue = "false") boolean summary
     ) {
+        if (summary) {
+            return summaryPagedResourcesAssembler.toModel(socialProfileService.getProfileSummaries(page, size, sortBy));
+        }
         return pagedResourcesAssembler.toModel(socialProfileService.getAllProfiles(page, size, sortBy));
     }
 
@@ -7,6 +7,8 @@ import io.swagger.v3.oas.annotations.security.*;
 import io.swagger.v3.oas.annotations.tags.*;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -18,7 +20,10 @@ import project_idea.idea.payloads.survey.NewSurveyDTO;
 import project_idea.idea.payloads.survey.PartialSurveyUpdateDTO;
 import project_idea.idea.services.SurveyFactory;
 import project_idea.idea.services.BaseSurveyService;
+import project_idea.idea.utils.FeedCursor;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -41,6 +46,40 @@ public class SurveyController {
         this.surveyFactory = surveyFactory;
     }
 
+    @GetMapping
+    @Operation(summary = "Get surveys of every kind in a single feed")
+    public Object getAllSurveys(
+            @RequestParam(defaultValue = "ALL")
+            @Parameter(description = "OPEN_ENDED, MULTIPLECHOICE or ALL") String surveyType,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(required = false) String language,
+            @RequestParam(required = false)
+            @Parameter(description = "Continuation token from a previous response's nextCursor; use instead of page for keyset pagination")
+            String cursor,
+            @AuthenticationPrincipal User currentUser) {
+        boolean isAdmin = currentUser != null &&
+            currentUser.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ADMIN"));
+
+        if (cursor != null) {
+            Slice<BaseSurvey> surveySlice = surveyFactory.getAllSurveysAfter(surveyType, language, cursor, size, isAdmin);
+            Map<String, Object> response = new HashMap<>();
+            response.put("surveys", surveySlice.getContent());
+            response.put("hasNext", surveySlice.hasNext());
+            if (surveySlice.hasNext()) {
+                BaseSurvey last = surveySlice.getContent().get(surveySlice.getNumberOfElements() - 1);
+                response.put("nextCursor", new FeedCursor(last.getCreatedAt(), last.getId()).encode());
+            }
+            return response;
+        }
+
+        Page<BaseSurvey> surveyPage = language != null
+            ? surveyFactory.getAllSurveysByLanguage(surveyType, language, page, size, sortBy, isAdmin)
+            : surveyFactory.getAllSurveys(surveyType, page, size, sortBy, isAdmin);
+        return pagedResourcesAssembler.toModel(surveyPage);
+    }
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     @Operation(summary = "Create a new survey")
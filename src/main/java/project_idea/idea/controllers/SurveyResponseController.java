@@ -7,18 +7,25 @@ import io.swagger.v3.oas.annotations.security.*;
 import io.swagger.v3.oas.annotations.tags.*;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import project_idea.idea.entities.OpenEndedResponse;
 import project_idea.idea.entities.MultipleChoiceResponse;
 import project_idea.idea.entities.SocialProfile;
 import project_idea.idea.entities.User;
+import project_idea.idea.enums.ExportFormat;
 import project_idea.idea.payloads.error.ErrorsResponseDTO;
 import project_idea.idea.payloads.survey.OpenEndedSurveyResponseDTO;
 import project_idea.idea.payloads.survey.MultipleChoiceSurveyResponseDTO;
+import project_idea.idea.payloads.survey.SurveyWithStatsDTO;
 import project_idea.idea.services.OpenEndedResponseService;
 import project_idea.idea.services.MultipleChoiceResponseService;
+import project_idea.idea.services.SurveyExportService;
 
 import java.util.List;
 import java.util.Map;
@@ -42,6 +49,9 @@ public class SurveyResponseController {
     @Autowired
     private MultipleChoiceResponseService multipleChoiceResponseService;
 
+    @Autowired
+    private SurveyExportService surveyExportService;
+
     @PostMapping("/open-ended/{surveyId}")
     @ResponseStatus(HttpStatus.CREATED)
     @Operation(
@@ -82,12 +92,40 @@ public class SurveyResponseController {
         return multipleChoiceResponseService.getSurveyResponses(surveyId);
     }
 
+    @GetMapping("/open-ended/survey/{surveyId}/export")
+    @Operation(summary = "Stream all responses of an open ended survey as NDJSON or CSV (author or admin only)")
+    public ResponseEntity<StreamingResponseBody> exportOpenEndedResponses(
+            @PathVariable UUID surveyId,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @AuthenticationPrincipal User currentUser) {
+        surveyExportService.validateOpenEndedExportAccess(surveyId, currentUser);
+        return exportResponse(surveyId, format,
+                outputStream -> surveyExportService.exportOpenEndedResponses(surveyId, format, outputStream));
+    }
+
+    @GetMapping("/multiple-choice/survey/{surveyId}/export")
+    @Operation(summary = "Stream all responses of a multiple choice survey as NDJSON or CSV (author or admin only)")
+    public ResponseEntity<StreamingResponseBody> exportMultipleChoiceResponses(
+            @PathVariable UUID surveyId,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @AuthenticationPrincipal User currentUser) {
+        surveyExportService.validateMultipleChoiceExportAccess(surveyId, currentUser);
+        return exportResponse(surveyId, format,
+                outputStream -> surveyExportService.exportMultipleChoiceResponses(surveyId, format, outputStream));
+    }
+
     @GetMapping("/multiple-choice/survey/{surveyId}/statistics")
     @Operation(summary = "Get response statistics for a multiple choice survey")
     public Map<String, Long> getResponseStatistics(@PathVariable UUID surveyId) {
         return multipleChoiceResponseService.getResponseStatistics(surveyId);
     }
 
+    @GetMapping("/multiple-choice/survey/{surveyId}/statistics/summary")
+    @Operation(summary = "Get a multiple choice survey together with its option counts and total responses")
+    public SurveyWithStatsDTO getSurveyWithStats(@PathVariable UUID surveyId) {
+        return multipleChoiceResponseService.getSurveyWithStats(surveyId);
+    }
+
     @DeleteMapping("/open-ended/{responseId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @Operation(summary = "Delete an open ended survey response")
@@ -107,4 +145,12 @@ public class SurveyResponseController {
         SocialProfile profile = currentUser.getSocialProfile();
         multipleChoiceResponseService.deleteResponse(responseId, profile);
     }
+
+    private ResponseEntity<StreamingResponseBody> exportResponse(UUID surveyId, ExportFormat format, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"survey-" + surveyId + "-responses." + format.getExtension() + "\"")
+                .body(body);
+    }
 }
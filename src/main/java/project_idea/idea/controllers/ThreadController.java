@@ -1,6 +1,7 @@
 package project_idea.idea.controllers;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -17,6 +18,7 @@ import project_idea.idea.entities.Thread;
 import project_idea.idea.entities.User;
 import project_idea.idea.exceptions.BadRequestException;
 import project_idea.idea.payloads.thread.NewThreadDTO;
+import project_idea.idea.payloads.thread.ThreadSummary;
 import project_idea.idea.services.ThreadService;
 
 import java.util.UUID;
@@ -31,6 +33,9 @@ public class ThreadController {
     @Autowired
     private PagedResourcesAssembler<Thread> pagedResourcesAssembler;
 
+    @Autowired
+    private PagedResourcesAssembler<ThreadSummary> summaryPagedResourcesAssembler;
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     @Operation(summary = "Create a new thread")
@@ -41,10 +46,15 @@ public class ThreadController {
 
     @GetMapping
     @Operation(summary = "Get all threads")
-    public PagedModel<EntityModel<Thread>> getAllThreads(
+    public PagedModel<?> getAllThreads(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "createdAt") String sortBy) {
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "false")
+            @Parameter(description = "Return lightweight thread cards instead of full threads") boolean summary) {
+        if (summary) {
+            return summaryPagedResourcesAssembler.toModel(threadService.getThreadSummaries(page, size, sortBy));
+        }
         Page<Thread> threadPage = threadService.getAllThreads(page, size, sortBy);
         return pagedResourcesAssembler.toModel(threadPage);
     }
@@ -0,0 +1,28 @@
+package project_idea.idea.controllers;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import project_idea.idea.entities.UploadJob;
+import project_idea.idea.entities.User;
+import project_idea.idea.services.UploadJobService;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/uploads")
+@Tag(name = "Uploads", description = "Status of uploads accepted with async=true")
+@SecurityRequirement(name = "bearerAuth")
+public class UploadController {
+    @Autowired
+    private UploadJobService uploadJobService;
+
+    @GetMapping("/{jobId}")
+    @Operation(summary = "Get upload job status", description = "resourceId names the updated post or profile, or the new attachment, once COMPLETED")
+    public UploadJob getUploadJob(@PathVariable UUID jobId, @AuthenticationPrincipal User currentUser) {
+        return uploadJobService.getJob(jobId, currentUser);
+    }
+}
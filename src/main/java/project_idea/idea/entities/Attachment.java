@@ -12,7 +12,8 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "attachments")
+@Table(name = "attachments",
+       indexes = @Index(name = "idx_attachments_content_hash", columnList = "content_hash"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -36,6 +37,10 @@ public class Attachment {
 
     private long fileSize;
 
+    // SHA-256 of the file; attachments with the same hash share one stored blob
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @ManyToOne
     @JoinColumn(name = "project_id", nullable = false)
     @JsonBackReference("project-attachments")
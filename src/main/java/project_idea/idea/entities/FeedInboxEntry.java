@@ -0,0 +1,33 @@
+package project_idea.idea.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// One post delivered to one reader's suggested feed; written by fan-out when the post is created
+@Entity
+@Table(name = "feed_inbox_entries",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "post_id"}),
+       indexes = @Index(name = "idx_feed_inbox_user_created", columnList = "user_id, post_created_at DESC, post_id DESC"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class FeedInboxEntry {
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "post_id", nullable = false)
+    private UUID postId;
+
+    // Copied from the post so the inbox can be paged without joining posts
+    @Column(name = "post_created_at", nullable = false)
+    private LocalDateTime postCreatedAt;
+}
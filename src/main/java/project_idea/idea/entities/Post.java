@@ -10,6 +10,7 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import project_idea.idea.enums.Visibility;
 import project_idea.idea.enums.PostType;
+import project_idea.idea.services.SearchIndexListener;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -18,7 +19,21 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "posts")
+// Feeds fetch only to-one associations in the main query, so SQL pagination still applies;
+// collections are loaded in batches (hibernate.default_batch_fetch_size)
+@NamedEntityGraph(name = "Post.list", attributeNodes = {
+    @NamedAttributeNode("authorProfile"),
+    @NamedAttributeNode("thread"),
+    @NamedAttributeNode("moderatedBy")
+})
+@NamedEntityGraph(name = "Post.detail", attributeNodes = {
+    @NamedAttributeNode(value = "authorProfile", subgraph = "authorProfile"),
+    @NamedAttributeNode("thread"),
+    @NamedAttributeNode("moderatedBy"),
+    @NamedAttributeNode("categories")
+}, subgraphs = @NamedSubgraph(name = "authorProfile", attributeNodes = @NamedAttributeNode("links")))
 @Inheritance(strategy = InheritanceType.JOINED)
+@EntityListeners(SearchIndexListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -63,6 +78,19 @@ public abstract class Post {
     @Column(name = "featured_image_alt")
     private String featuredImageAlt;
 
+    // Resized copies generated after upload; null until ready or for formats that can't be decoded
+    @Column(name = "featured_image_thumbnail_url")
+    private String featuredImageThumbnailUrl;
+
+    @Column(name = "featured_image_thumbnail_public_id")
+    private String featuredImageThumbnailPublicId;
+
+    @Column(name = "featured_image_web_url")
+    private String featuredImageWebUrl;
+
+    @Column(name = "featured_image_web_public_id")
+    private String featuredImageWebPublicId;
+
     @Column(nullable = false)
     private boolean featured = false;
 
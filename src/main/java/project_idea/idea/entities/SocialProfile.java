@@ -3,12 +3,15 @@ package project_idea.idea.entities;
 import com.fasterxml.jackson.annotation.*;
 import jakarta.persistence.*;
 import lombok.*;
+import project_idea.idea.services.SearchIndexListener;
+
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 
 @Entity
 @Table(name = "social_profiles")
+@EntityListeners(SearchIndexListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -35,6 +38,17 @@ public class SocialProfile {
 
     private String avatarURL;
 
+    // Resized copies of a custom avatar generated after upload; null until ready
+    private String avatarThumbnailURL;
+
+    @JsonIgnore
+    private String avatarThumbnailPublicId;
+
+    private String avatarWebURL;
+
+    @JsonIgnore
+    private String avatarWebPublicId;
+
     @Column(length = 1000)
     private String bio;
 
@@ -0,0 +1,39 @@
+package project_idea.idea.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+// Materialized per-option counters for multiple choice surveys, kept in step with responses
+@Entity
+@Table(name = "survey_option_tallies",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"survey_id", "option_value"}))
+@Getter
+@Setter
+@NoArgsConstructor
+public class SurveyOptionTally {
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @Column(name = "survey_id", nullable = false)
+    private UUID surveyId;
+
+    @Column(name = "option_value", nullable = false)
+    private String optionValue;
+
+    @Column(nullable = false)
+    private int position;
+
+    @Column(nullable = false)
+    private long selections;
+
+    public SurveyOptionTally(UUID surveyId, String optionValue, int position) {
+        this.surveyId = surveyId;
+        this.optionValue = optionValue;
+        this.position = position;
+    }
+}
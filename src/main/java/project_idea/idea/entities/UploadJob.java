@@ -0,0 +1,60 @@
+package project_idea.idea.entities;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import project_idea.idea.enums.UploadStatus;
+import project_idea.idea.enums.UploadTarget;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Tracks an upload accepted with 202 while it is stored in the background
+@Entity
+@Table(name = "upload_jobs")
+@Getter
+@Setter
+@NoArgsConstructor
+public class UploadJob {
+    @Id
+    @GeneratedValue
+    @Setter(AccessLevel.NONE)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private UploadTarget target;
+
+    // The post, profile or project the upload was sent to
+    @Column(nullable = false)
+    private UUID targetId;
+
+    @JsonIgnore
+    @Column(nullable = false)
+    private UUID ownerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private UploadStatus status = UploadStatus.PENDING;
+
+    // The entity holding the stored file once completed (the attachment for attachment uploads)
+    private UUID resourceId;
+
+    @Column(length = 500)
+    private String error;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    private LocalDateTime completedAt;
+
+    public UploadJob(UploadTarget target, UUID targetId, UUID ownerId) {
+        this.target = target;
+        this.targetId = targetId;
+        this.ownerId = ownerId;
+    }
+}
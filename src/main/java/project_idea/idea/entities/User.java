@@ -5,6 +5,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -54,6 +55,12 @@ public class User implements UserDetails {
     
     private boolean hasWarnings = false;
 
+    // Bumped whenever status or roles change, so tokens carrying the old version can be rejected
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long tokenVersion = 0;
+
     @Column(nullable = false)
     private String preferredLanguage = "en";
 
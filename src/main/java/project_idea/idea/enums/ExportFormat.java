@@ -0,0 +1,25 @@
+package project_idea.idea.enums;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "File format of a streamed export")
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
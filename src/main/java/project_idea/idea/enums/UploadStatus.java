@@ -0,0 +1,8 @@
+package project_idea.idea.enums;
+
+public enum UploadStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,7 @@
+package project_idea.idea.enums;
+
+public enum UploadTarget {
+    FEATURED_IMAGE,
+    AVATAR,
+    ATTACHMENT
+}
@@ -0,0 +1,15 @@
+package project_idea.idea.payloads.post;
+
+import project_idea.idea.entities.Post;
+
+import java.util.List;
+import java.util.Map;
+
+// One page of search results in relevance order; nextCursor is null on the last page and facets
+// (facet -> value -> matching posts over all pages) only when requested
+public record PostSearchResults(
+    List<Post> posts,
+    boolean hasNext,
+    String nextCursor,
+    Map<String, Map<String, Long>> facets
+) {}
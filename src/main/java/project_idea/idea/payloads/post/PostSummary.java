@@ -0,0 +1,24 @@
+package project_idea.idea.payloads.post;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import project_idea.idea.enums.PostType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Schema(description = "Card-sized view of a post, selected directly in the query without loading the entity")
+public record PostSummary(
+    UUID id,
+    PostType type,
+    String title,
+    String description,
+    String language,
+    String featuredImageUrl,
+    String featuredImageAlt,
+    boolean featured,
+    LocalDateTime createdAt,
+    UUID authorProfileId,
+    String authorUsername,
+    String authorAvatarURL,
+    UUID threadId
+) {}
@@ -0,0 +1,14 @@
+package project_idea.idea.payloads.socialProfile;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+@Schema(description = "Card-sized view of a social profile")
+public record ProfileSummary(
+    UUID id,
+    String username,
+    String firstName,
+    String lastName,
+    String avatarURL
+) {}
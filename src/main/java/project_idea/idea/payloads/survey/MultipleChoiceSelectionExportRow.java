@@ -0,0 +1,11 @@
+package project_idea.idea.payloads.survey;
+
+import java.util.UUID;
+
+// One row per selected option; consecutive rows with the same responseId belong to one response
+public record MultipleChoiceSelectionExportRow(
+    UUID responseId,
+    UUID profileId,
+    String username,
+    String selectedOption
+) {}
@@ -0,0 +1,10 @@
+package project_idea.idea.payloads.survey;
+
+import java.util.UUID;
+
+public record OpenEndedResponseExportRow(
+    Long responseId,
+    UUID profileId,
+    String username,
+    String response
+) {}
@@ -0,0 +1,17 @@
+package project_idea.idea.payloads.thread;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Schema(description = "Card-sized view of a thread with its post count")
+public record ThreadSummary(
+    UUID id,
+    String title,
+    String description,
+    UUID authorProfileId,
+    String authorUsername,
+    Integer postCount,
+    LocalDateTime createdAt
+) {}
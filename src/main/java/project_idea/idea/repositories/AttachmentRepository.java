@@ -1,6 +1,8 @@
 package project_idea.idea.repositories;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.stereotype.Repository;
 import project_idea.idea.entities.Attachment;
 import project_idea.idea.entities.Project;
@@ -12,4 +14,10 @@ import java.util.UUID;
 public interface AttachmentRepository extends JpaRepository<Attachment, UUID> {
     List<Attachment> findByProject(Project project);
     List<Attachment> findByProjectId(UUID projectId);
+
+    // Locks every attachment sharing the content, so reusing and releasing its blob can't interleave
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Attachment> findByContentHash(String contentHash);
+
+    long countByCloudinaryPublicId(String cloudinaryPublicId);
 }
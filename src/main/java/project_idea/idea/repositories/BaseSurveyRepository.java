@@ -0,0 +1,24 @@
+package project_idea.idea.repositories;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import project_idea.idea.entities.BaseSurvey;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// Queries the whole single-table survey hierarchy, so mixed survey feeds are paged and sorted in SQL
+@Repository
+public interface BaseSurveyRepository extends PostRepository<BaseSurvey> {
+    @EntityGraph("Post.list")
+    @Query("SELECT s FROM BaseSurvey s WHERE TYPE(s) IN :surveyTypes " +
+           "AND (:featuredOnly = false OR s.featured = true) " +
+           "AND (:language IS NULL OR s.language = :language) " +
+           "AND (CAST(:createdAt AS LocalDateTime) IS NULL OR s.createdAt < :createdAt OR (s.createdAt = :createdAt AND s.id < :id)) " +
+           "ORDER BY s.createdAt DESC, s.id DESC")
+    List<BaseSurvey> findSurveyFeedPage(List<Class<? extends BaseSurvey>> surveyTypes, boolean featuredOnly, String language,
+                                        LocalDateTime createdAt, UUID id, Pageable limit);
+}
@@ -0,0 +1,45 @@
+package project_idea.idea.repositories;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import project_idea.idea.entities.FeedInboxEntry;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface FeedInboxRepository extends JpaRepository<FeedInboxEntry, UUID> {
+    // Keyset read of one inbox, newest first; pass PageRequest.of(0, size + 1) to detect a next page
+    @Query("SELECT e FROM FeedInboxEntry e WHERE e.userId = :userId " +
+           "AND (CAST(:createdAt AS LocalDateTime) IS NULL OR e.postCreatedAt < :createdAt OR (e.postCreatedAt = :createdAt AND e.postId < :postId)) " +
+           "ORDER BY e.postCreatedAt DESC, e.postId DESC")
+    List<FeedInboxEntry> findInboxPage(UUID userId, LocalDateTime createdAt, UUID postId, Pageable limit);
+
+    // Delivers a post to every user interested in one of the categories in a single statement,
+    // so fan-out never loads the recipients into memory
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO feed_inbox_entries (id, user_id, post_id, post_created_at) " +
+                   "SELECT gen_random_uuid(), ui.user_id, :postId, :postCreatedAt " +
+                   "FROM (SELECT DISTINCT user_id FROM user_interests WHERE interests_id IN (:categoryIds)) ui " +
+                   "WHERE ui.user_id <> :authorUserId " +
+                   "ON CONFLICT (user_id, post_id) DO NOTHING",
+           nativeQuery = true)
+    int fanOut(UUID postId, LocalDateTime postCreatedAt, Collection<UUID> categoryIds, UUID authorUserId);
+
+    // Keeps only the newest maxEntries of every inbox
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM feed_inbox_entries WHERE id IN (" +
+                   "SELECT id FROM (SELECT id, ROW_NUMBER() OVER (PARTITION BY user_id " +
+                   "ORDER BY post_created_at DESC, post_id DESC) AS position FROM feed_inbox_entries) ranked " +
+                   "WHERE ranked.position > :maxEntries)",
+           nativeQuery = true)
+    int trimInboxes(int maxEntries);
+}
@@ -1,18 +1,46 @@
 package project_idea.idea.repositories;
 
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import project_idea.idea.entities.MultipleChoiceResponse;
 import project_idea.idea.entities.MultipleChoiceSurvey;
 import project_idea.idea.entities.SocialProfile;
+import project_idea.idea.payloads.survey.MultipleChoiceSelectionExportRow;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface MultipleChoiceResponseRepository extends JpaRepository<MultipleChoiceResponse, UUID> {
     List<MultipleChoiceResponse> findBySurvey(MultipleChoiceSurvey survey);
     List<MultipleChoiceResponse> findBySocialProfile(SocialProfile socialProfile);
     Optional<MultipleChoiceResponse> findBySurveyAndSocialProfile(MultipleChoiceSurvey survey, SocialProfile socialProfile);
+
+    // One row per selected option, each carrying the survey's respondent count so a single query covers both
+    @Query("SELECT o AS selectedOption, COUNT(r) AS selections, " +
+           "(SELECT COUNT(r2) FROM MultipleChoiceResponse r2 WHERE r2.survey.id = :surveyId) AS totalRespondents " +
+           "FROM MultipleChoiceResponse r JOIN r.selectedOptions o " +
+           "WHERE r.survey.id = :surveyId GROUP BY o")
+    List<OptionCountView> countSelectedOptions(UUID surveyId);
+
+    // Ordered by response so the exporter can regroup selections while streaming
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT new project_idea.idea.payloads.survey.MultipleChoiceSelectionExportRow(r.id, sp.id, sp.username, o) " +
+           "FROM MultipleChoiceResponse r LEFT JOIN r.socialProfile sp LEFT JOIN r.selectedOptions o " +
+           "WHERE r.survey.id = :surveyId ORDER BY r.id")
+    Stream<MultipleChoiceSelectionExportRow> streamExportRows(UUID surveyId);
+
+    interface OptionCountView {
+        String getSelectedOption();
+        Long getSelections();
+        Long getTotalRespondents();
+    }
 }
@@ -1,14 +1,23 @@
 package project_idea.idea.repositories;
 
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import project_idea.idea.entities.MultipleChoiceSurvey;
 import project_idea.idea.entities.SocialProfile;
 import project_idea.idea.enums.Visibility;
 
 import java.util.List;
+import java.util.UUID;
 
 @Repository
 public interface MultipleChoiceSurveyRepository extends PostRepository<MultipleChoiceSurvey> {
     List<MultipleChoiceSurvey> findByAuthorProfile(SocialProfile authorProfile);
     List<MultipleChoiceSurvey> findByVisibility(Visibility visibility);
+
+    @Query("SELECT s.id FROM MultipleChoiceSurvey s")
+    List<UUID> findAllIds();
+
+    @Query("SELECT s.id FROM MultipleChoiceSurvey s WHERE NOT EXISTS " +
+           "(SELECT t FROM SurveyOptionTally t WHERE t.surveyId = s.id)")
+    List<UUID> findIdsWithoutTallies();
 }
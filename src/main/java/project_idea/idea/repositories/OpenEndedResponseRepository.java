@@ -1,14 +1,22 @@
 package project_idea.idea.repositories;
 
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import project_idea.idea.entities.OpenEndedResponse;
 import project_idea.idea.entities.OpenEndedSurvey;
 import project_idea.idea.entities.SocialProfile;
+import project_idea.idea.payloads.survey.OpenEndedResponseExportRow;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface OpenEndedResponseRepository extends JpaRepository<OpenEndedResponse, UUID> {
@@ -16,4 +24,10 @@ public interface OpenEndedResponseRepository extends JpaRepository<OpenEndedResp
     List<OpenEndedResponse> findBySocialProfile(SocialProfile socialProfile);
     Optional<OpenEndedResponse> findBySurveyAndSocialProfile(OpenEndedSurvey survey, SocialProfile socialProfile);
     void deleteBySurveyAndSocialProfile(OpenEndedSurvey survey, SocialProfile socialProfile);
+
+    // Must be consumed inside a read-only transaction so the driver can stream with a cursor
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT new project_idea.idea.payloads.survey.OpenEndedResponseExportRow(r.id, sp.id, sp.username, r.response) " +
+           "FROM OpenEndedResponse r LEFT JOIN r.socialProfile sp WHERE r.survey.id = :surveyId ORDER BY r.id")
+    Stream<OpenEndedResponseExportRow> streamExportRows(UUID surveyId);
 }
@@ -2,14 +2,21 @@ package project_idea.idea.repositories;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import project_idea.idea.entities.Category;
 import project_idea.idea.entities.Post;
 import project_idea.idea.enums.PostType;
 import project_idea.idea.enums.Visibility;
+import project_idea.idea.payloads.post.PostSummary;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -17,28 +24,197 @@ import java.util.UUID;
 
 @Repository
 public interface PostRepository<T extends Post> extends JpaRepository<T, UUID> {
+    @Override
+    @EntityGraph("Post.detail")
+    Optional<T> findById(UUID id);
+
+    @EntityGraph("Post.list")
     List<T> findByFeaturedTrue();
+    @EntityGraph("Post.list")
     Page<T> findByFeaturedTrue(Pageable pageable);
+    @EntityGraph("Post.list")
     Page<T> findByVisibility(Visibility visibility, Pageable pageable);
+    @EntityGraph("Post.list")
     Page<T> findByVisibilityNot(Visibility visibility, Pageable pageable);
+    @EntityGraph("Post.list")
     Page<T> findByAuthorProfileId(UUID authorId, Pageable pageable);
+    @EntityGraph("Post.list")
     Page<T> findByAuthorProfileIdAndFeaturedTrue(UUID authorId, Pageable pageable);
+    @EntityGraph("Post.list")
     Page<T> findByFeaturedTrueOrAuthorProfileId(boolean featured, UUID authorId, Pageable pageable);
+    @EntityGraph("Post.list")
     Page<T> findByType(PostType type, Pageable pageable);
+    @EntityGraph("Post.list")
     Page<T> findByTypeAndVisibilityNot(PostType type, Visibility visibility, Pageable pageable);
+    @EntityGraph("Post.list")
     Page<T> findByTypeAndLanguage(PostType type, String language, Pageable pageable);
+    @EntityGraph("Post.list")
     Page<T> findByTypeAndLanguageAndVisibilityNot(PostType type, String language, Visibility visibility, Pageable pageable);
+    @EntityGraph("Post.list")
     @Query("SELECT p FROM Post p WHERE p.type = :type")
     Page<T> findByPostType(PostType type, Pageable pageable);
+    @EntityGraph("Post.list")
     Page<T> findByLanguage(String language, Pageable pageable);
+    @EntityGraph("Post.list")
     Page<T> findByLanguageAndVisibilityNot(String language, Visibility visibility, Pageable pageable);
     Optional<T> findByIdAndLanguage(UUID id, String language);
+    @EntityGraph("Post.list")
     Page<T> findByLanguageAndFeaturedTrue(String lowerCase, Pageable pageable);
 
+    @EntityGraph("Post.list")
     Page<T> findByTypeAndVisibility(PostType type, Visibility visibility, Pageable pageable);
 
+    @EntityGraph("Post.list")
     Page<T> findByTypeInAndVisibility(List<PostType> types, Visibility visibility, Pageable pageable);
 
+    @EntityGraph("Post.list")
     Page<T> findByCategoriesInAndVisibility(Set<Category> categories, Visibility visibility, Pageable pageable);
+    @EntityGraph("Post.list")
     Page<T> findByAuthorProfileIdAndType(UUID authorId, PostType type, Pageable pageable);
+
+    // Slice variants of the feed finders: same filters, but no count query (used when withCount=false)
+    @EntityGraph("Post.list")
+    Slice<T> findSliceByVisibilityNot(Visibility visibility, Pageable pageable);
+    @EntityGraph("Post.list")
+    Slice<T> findSliceByTypeAndVisibilityNot(PostType type, Visibility visibility, Pageable pageable);
+    @EntityGraph("Post.list")
+    Slice<T> findSliceByLanguageAndVisibilityNot(String language, Visibility visibility, Pageable pageable);
+    @EntityGraph("Post.list")
+    Slice<T> findSliceByTypeAndLanguageAndVisibilityNot(PostType type, String language, Visibility visibility, Pageable pageable);
+    @EntityGraph("Post.list")
+    Slice<T> findSliceByAuthorProfileId(UUID authorId, Pageable pageable);
+    @EntityGraph("Post.list")
+    Slice<T> findSliceByAuthorProfileIdAndType(UUID authorId, PostType type, Pageable pageable);
+    @EntityGraph("Post.list")
+    Slice<T> findSliceByAuthorProfileIdAndFeaturedTrue(UUID authorId, Pageable pageable);
+
+    // Keyset (cursor) feeds: newest first, seeking on (createdAt, id) without a count query.
+    // A null createdAt/id starts from the newest post; pass PageRequest.of(0, size + 1) to detect a next page.
+    // The cast types the null first-page parameter, which PostgreSQL can't infer from a bare IS NULL.
+    // #{#entityName} makes subtype repositories query their own table instead of the whole hierarchy.
+    @EntityGraph("Post.list")
+    @Query("SELECT p FROM #{#entityName} p WHERE p.visibility <> :excluded " +
+           "AND (:type IS NULL OR p.type = :type) " +
+           "AND (:language IS NULL OR p.language = :language) " +
+           "AND (CAST(:createdAt AS LocalDateTime) IS NULL OR p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<T> findFeedPage(Visibility excluded, PostType type, String language,
+                         LocalDateTime createdAt, UUID id, Pageable limit);
+
+    @EntityGraph("Post.list")
+    @Query("SELECT p FROM #{#entityName} p WHERE p.authorProfile.id = :authorId " +
+           "AND (:type IS NULL OR p.type = :type) " +
+           "AND (:featuredOnly = false OR p.featured = true) " +
+           "AND (CAST(:createdAt AS LocalDateTime) IS NULL OR p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<T> findProfileFeedPage(UUID authorId, PostType type, boolean featuredOnly,
+                                LocalDateTime createdAt, UUID id, Pageable limit);
+
+    // Pull side of the fan-out feed: posts in the given categories, read at request time
+    @EntityGraph("Post.list")
+    @Query("SELECT p FROM Post p WHERE p.visibility = :visibility AND p.authorProfile.id <> :excludedAuthorId " +
+           "AND EXISTS (SELECT 1 FROM Post p2 JOIN p2.categories c WHERE p2.id = p.id AND c.id IN :categoryIds) " +
+           "AND (CAST(:createdAt AS LocalDateTime) IS NULL OR p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<T> findCategoryFeedPage(Visibility visibility, Collection<UUID> categoryIds, UUID excludedAuthorId,
+                                 LocalDateTime createdAt, UUID id, Pageable limit);
+
+    // Full-text search over the generated search_vector column (see PostSearchIndexInitializer).
+    // Keyset on (rank, id): a null rank starts from the best match; limit should be size + 1 to detect a next page.
+    @Query(value = "SELECT ranked.id AS id, ranked.rank AS rank FROM (" +
+                   "SELECT p.id AS id, ts_rank(p.search_vector, query) AS rank " +
+                   "FROM posts p, websearch_to_tsquery(CAST(:config AS regconfig), :text) query " +
+                   "WHERE p.search_vector @@ query AND p.visibility = 'ACTIVE' " +
+                   "AND (CAST(:language AS text) IS NULL OR p.language = :language)) ranked " +
+                   "WHERE CAST(:rank AS real) IS NULL OR ranked.rank < :rank OR (ranked.rank = :rank AND ranked.id < :id) " +
+                   "ORDER BY ranked.rank DESC, ranked.id DESC LIMIT :limit",
+           nativeQuery = true)
+    List<SearchHit> searchPage(String config, String text, String language, Float rank, UUID id, int limit);
+
+    interface SearchHit {
+        UUID getId();
+        Float getRank();
+    }
+
+    // Facet counts for the same match set in one pass: each row fills exactly one of type, language or category
+    @Query(value = "SELECT p.post_type AS type, p.language AS language, CAST(pc.categories_id AS text) AS categoryId, " +
+                   "COUNT(DISTINCT p.id) AS hits " +
+                   "FROM posts p LEFT JOIN post_categories pc ON pc.post_id = p.id " +
+                   "WHERE p.search_vector @@ websearch_to_tsquery(CAST(:config AS regconfig), :text) " +
+                   "AND p.visibility = 'ACTIVE' " +
+                   "AND (CAST(:language AS text) IS NULL OR p.language = :language) " +
+                   "GROUP BY GROUPING SETS ((p.post_type), (p.language), (pc.categories_id))",
+           nativeQuery = true)
+    List<SearchFacetRow> searchFacets(String config, String text, String language);
+
+    interface SearchFacetRow {
+        String getType();
+        String getLanguage();
+        String getCategoryId();
+        Long getHits();
+    }
+
+    // Card projections: only base-table columns plus the author, so no entity is hydrated and
+    // Hibernate leaves the subtype tables out of the join entirely. Cards use the thumbnails once they exist
+    String POST_SUMMARY_SELECT = "SELECT new project_idea.idea.payloads.post.PostSummary(" +
+            "p.id, p.type, p.title, p.description, p.language, " +
+            "COALESCE(p.featuredImageThumbnailUrl, p.featuredImageUrl), p.featuredImageAlt, " +
+            "p.featured, p.createdAt, a.id, a.username, COALESCE(a.avatarThumbnailURL, a.avatarURL), t.id) " +
+            "FROM Post p JOIN p.authorProfile a LEFT JOIN p.thread t ";
+
+    @Query(value = POST_SUMMARY_SELECT +
+           "WHERE p.visibility <> :excluded " +
+           "AND (:type IS NULL OR p.type = :type) " +
+           "AND (:language IS NULL OR p.language = :language)",
+           countQuery = "SELECT COUNT(p) FROM Post p WHERE p.visibility <> :excluded " +
+           "AND (:type IS NULL OR p.type = :type) " +
+           "AND (:language IS NULL OR p.language = :language)")
+    Page<PostSummary> findSummaries(Visibility excluded, PostType type, String language, Pageable pageable);
+
+    @Query(POST_SUMMARY_SELECT + "WHERE p.id IN :ids")
+    List<PostSummary> findSummariesByIdIn(Collection<UUID> ids);
+
+    @EntityGraph("Post.list")
+    List<T> findByIdIn(Collection<UUID> ids);
+
+    // Candidate rows for feed ranking: scalar columns plus the number of categories shared with the reader
+    @Query("SELECT p.id AS id, p.type AS type, p.language AS language, p.featured AS featured, p.createdAt AS createdAt, " +
+           "(SELECT COUNT(c) FROM Post p2 JOIN p2.categories c WHERE p2.id = p.id AND c.id IN :interestIds) AS matchingCategories " +
+           "FROM Post p WHERE p.visibility = :visibility AND p.authorProfile.id <> :excludedAuthorId " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<RankingCandidate> findRankingCandidates(Visibility visibility, Collection<UUID> interestIds,
+                                                 UUID excludedAuthorId, Pageable limit);
+
+    interface RankingCandidate {
+        UUID getId();
+        PostType getType();
+        String getLanguage();
+        boolean isFeatured();
+        LocalDateTime getCreatedAt();
+        Long getMatchingCategories();
+    }
+
+    // Recency fallback past the ranked window: active posts outside the ranked ids, newest first, after (createdAt, id).
+    // Offset paging lands anywhere in it, hence the explicit offset instead of a Pageable.
+    @Query(value = "SELECT p.id FROM posts p WHERE p.visibility = 'ACTIVE' AND p.author_profile_id <> :excludedAuthorId " +
+                   "AND p.id NOT IN (:rankedIds) " +
+                   "AND (CAST(:createdAt AS timestamp) IS NULL OR p.created_at < :createdAt " +
+                   "OR (p.created_at = :createdAt AND p.id < :id)) " +
+                   "ORDER BY p.created_at DESC, p.id DESC LIMIT :limit OFFSET :offset",
+           nativeQuery = true)
+    List<UUID> findFallbackIds(UUID excludedAuthorId, Collection<UUID> rankedIds, LocalDateTime createdAt, UUID id,
+                               int limit, long offset);
+
+    @Query("SELECT COUNT(p) FROM Post p WHERE p.visibility = :visibility AND p.authorProfile.id <> :excludedAuthorId " +
+           "AND p.id NOT IN :rankedIds")
+    long countFallback(Visibility visibility, UUID excludedAuthorId, Collection<UUID> rankedIds);
+
+    // Only applies while the post still shows the image the variants were made from
+    @Transactional
+    @Modifying
+    @Query("UPDATE Post p SET p.featuredImageThumbnailUrl = :thumbnailUrl, p.featuredImageThumbnailPublicId = :thumbnailPublicId, " +
+           "p.featuredImageWebUrl = :webUrl, p.featuredImageWebPublicId = :webPublicId " +
+           "WHERE p.id = :postId AND p.featuredImagePublicId = :sourcePublicId")
+    int setFeaturedImageVariants(UUID postId, String sourcePublicId, String thumbnailUrl, String thumbnailPublicId,
+                                 String webUrl, String webPublicId);
 }
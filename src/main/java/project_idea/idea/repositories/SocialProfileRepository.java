@@ -1,13 +1,55 @@
 package project_idea.idea.repositories;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import project_idea.idea.entities.SocialProfile;
+import project_idea.idea.payloads.socialProfile.ProfileSummary;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface SocialProfileRepository extends JpaRepository<SocialProfile, UUID> {
     Optional<SocialProfile> findByUsername(String username);
+
+    @Query(value = "SELECT new project_idea.idea.payloads.socialProfile.ProfileSummary(" +
+                   "sp.id, sp.username, sp.firstName, sp.lastName, COALESCE(sp.avatarThumbnailURL, sp.avatarURL)) FROM SocialProfile sp",
+           countQuery = "SELECT COUNT(sp) FROM SocialProfile sp")
+    Page<ProfileSummary> findSummaries(Pageable pageable);
+
+    @Query("SELECT new project_idea.idea.payloads.socialProfile.ProfileSummary(" +
+           "sp.id, sp.username, sp.firstName, sp.lastName, COALESCE(sp.avatarThumbnailURL, sp.avatarURL)) FROM SocialProfile sp WHERE sp.id IN :ids")
+    List<ProfileSummary> findSummariesByIdIn(Collection<UUID> ids);
+
+    // Only id and username, read with a cursor; must be consumed inside a transaction
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT sp.id AS id, sp.username AS username FROM SocialProfile sp WHERE sp.username IS NOT NULL")
+    Stream<UsernameView> streamUsernames();
+
+    interface UsernameView {
+        UUID getId();
+        String getUsername();
+    }
+
+    // Only applies while the profile still shows the avatar the variants were made from
+    @Transactional
+    @Modifying
+    @Query("UPDATE SocialProfile sp SET sp.avatarThumbnailURL = :thumbnailUrl, sp.avatarThumbnailPublicId = :thumbnailPublicId, " +
+           "sp.avatarWebURL = :webUrl, sp.avatarWebPublicId = :webPublicId " +
+           "WHERE sp.id = :profileId AND sp.avatarURL = :sourceUrl")
+    int setAvatarVariants(UUID profileId, String sourceUrl, String thumbnailUrl, String thumbnailPublicId,
+                          String webUrl, String webPublicId);
 }
@@ -0,0 +1,33 @@
+package project_idea.idea.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import project_idea.idea.entities.SurveyOptionTally;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface SurveyOptionTallyRepository extends JpaRepository<SurveyOptionTally, UUID> {
+    List<SurveyOptionTally> findBySurveyIdOrderByPositionAsc(UUID surveyId);
+
+    // Applied in the database so concurrent responses never overwrite each other's counts
+    @Modifying
+    @Query("UPDATE SurveyOptionTally t SET t.selections = t.selections + :delta " +
+           "WHERE t.surveyId = :surveyId AND t.optionValue = :optionValue")
+    int addSelections(UUID surveyId, String optionValue, long delta);
+
+    // Recomputes every counter of a survey from survey_selected_options in a single statement
+    @Modifying
+    @Query("UPDATE SurveyOptionTally t SET t.selections = " +
+           "(SELECT COUNT(r) FROM MultipleChoiceResponse r JOIN r.selectedOptions o " +
+           "WHERE r.survey.id = t.surveyId AND o = t.optionValue) " +
+           "WHERE t.surveyId = :surveyId")
+    int recount(UUID surveyId);
+
+    @Modifying
+    @Query("DELETE FROM SurveyOptionTally t WHERE t.surveyId = :surveyId")
+    void deleteBySurveyId(UUID surveyId);
+}
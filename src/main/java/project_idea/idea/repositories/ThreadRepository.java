@@ -3,9 +3,11 @@ package project_idea.idea.repositories;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import project_idea.idea.entities.Thread;
 import project_idea.idea.entities.SocialProfile;
+import project_idea.idea.payloads.thread.ThreadSummary;
 
 import java.util.UUID;
 
@@ -13,4 +15,10 @@ import java.util.UUID;
 public interface ThreadRepository extends JpaRepository<Thread, UUID> {
     Page<Thread> findByAuthorProfile(SocialProfile authorProfile, Pageable pageable);
     Page<Thread> findByPostsId(UUID postId, Pageable pageable);
+
+    @Query(value = "SELECT new project_idea.idea.payloads.thread.ThreadSummary(" +
+                   "t.id, t.title, t.description, a.id, a.username, SIZE(t.posts), t.createdAt) " +
+                   "FROM Thread t JOIN t.authorProfile a",
+           countQuery = "SELECT COUNT(t) FROM Thread t")
+    Page<ThreadSummary> findSummaries(Pageable pageable);
 }
@@ -0,0 +1,11 @@
+package project_idea.idea.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import project_idea.idea.entities.UploadJob;
+
+import java.util.UUID;
+
+@Repository
+public interface UploadJobRepository extends JpaRepository<UploadJob, UUID> {
+}
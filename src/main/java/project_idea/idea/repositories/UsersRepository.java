@@ -1,9 +1,11 @@
 package project_idea.idea.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import project_idea.idea.entities.User;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,4 +13,16 @@ import java.util.UUID;
 public interface UsersRepository extends JpaRepository<User, UUID> {
     Optional<User> findByEmail(String email);
     Optional<User> findBySocialProfile_Username(String username);
+
+    interface TokenVersionView {
+        UUID getId();
+        long getTokenVersion();
+    }
+
+    @Query("SELECT u.id AS id, u.tokenVersion AS tokenVersion FROM User u WHERE u.tokenVersion > 0")
+    List<TokenVersionView> findRevokedTokenVersions();
+
+    // Categories followed by so many users that fanning posts out to all of them costs more than pulling
+    @Query("SELECT c.id FROM User u JOIN u.interests c GROUP BY c.id HAVING COUNT(u) > :maxFollowers")
+    List<UUID> findCategoryIdsFollowedByMoreThan(long maxFollowers);
 }
@@ -9,18 +9,20 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
-import org.springframework.util.AntPathMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
 import project_idea.idea.entities.User;
 import project_idea.idea.enums.UserStatus;
 import project_idea.idea.exceptions.UnauthorizedException;
 import project_idea.idea.services.UsersService;
 import project_idea.idea.tools.JWT;
+import project_idea.idea.tools.JWTClaims;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Component
@@ -30,10 +32,17 @@ public class JWTCheckerFilter extends OncePerRequestFilter {
 
     private final JWT jwt;
     private final UsersService usersService;
+    private final PrincipalCache principalCache;
+    private final PublicPathMatcher publicPathMatcher;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
     
-    public JWTCheckerFilter(JWT jwt, UsersService usersService) {
+    public JWTCheckerFilter(JWT jwt, UsersService usersService, PrincipalCache principalCache,
+                            PublicPathMatcher publicPathMatcher, TokenRevocationRegistry tokenRevocationRegistry) {
         this.jwt = jwt;
         this.usersService = usersService;
+        this.principalCache = principalCache;
+        this.publicPathMatcher = publicPathMatcher;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
     }
 
     @Override
@@ -52,35 +61,12 @@ public class JWTCheckerFilter extends OncePerRequestFilter {
         logger.debug("Token received and being verified");
 
         try {
-            jwt.verifyToken(accessToken);
-            String userId = jwt.getIdFromToken(accessToken);
-            User currentUser = this.usersService.findById(UUID.fromString(userId));
-
-            // Check if user is banned
-            if (currentUser.getStatus() == UserStatus.BANNED) {
-                logger.error("Banned user attempted to access: {}", currentUser.getEmail());
-                throw new UnauthorizedException("Your account has been banned. Reason: " + 
-                    currentUser.getModerationReason());
-            }
-
-            // Check if user is suspended
-            if (currentUser.getStatus() == UserStatus.SUSPENDED) {
-                if (currentUser.getSuspensionEndDate().isAfter(LocalDateTime.now())) {
-                    logger.error("Suspended user attempted to access: {}", currentUser.getEmail());
-                    throw new UnauthorizedException("Your account is suspended until " + 
-                        currentUser.getSuspensionEndDate() + ". Reason: " + 
-                        currentUser.getModerationReason());
-                } else {
-                    // If suspension period is over, automatically reactivate the account
-                    currentUser.setStatus(UserStatus.ACTIVE);
-                    currentUser.setSuspensionEndDate(null);
-                    currentUser.setModerationReason(null);
-                    usersService.save(currentUser);
-                }
-            }
+            JWTClaims claims = jwt.verifyAndExtract(accessToken);
+            UUID userId = UUID.fromString(claims.subject());
 
-            logger.debug("User authenticated successfully: {}", currentUser.getEmail());
-            Authentication authentication = new UsernamePasswordAuthenticationToken(currentUser, null, currentUser.getAuthorities());
+            Authentication authentication = claims.isFatToken()
+                    ? authenticateFromClaims(userId, claims)
+                    : authenticateFromUser(userId);
             SecurityContextHolder.getContext().setAuthentication(authentication);
         } catch (Exception e) {
             logger.error("Authentication failed: {}", e.getMessage());
@@ -90,17 +76,73 @@ public class JWTCheckerFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // Fat tokens carry status and roles, so authorization doesn't depend on the stored user
+    private Authentication authenticateFromClaims(UUID userId, JWTClaims claims) {
+        if (tokenRevocationRegistry.isRevoked(userId, claims.tokenVersion())) {
+            logger.error("Revoked token used by user: {}", userId);
+            throw new UnauthorizedException("Your session has been revoked, please log in again");
+        }
+
+        if (!UserStatus.ACTIVE.name().equals(claims.status())) {
+            logger.error("Inactive user attempted to access with token status {}: {}", claims.status(), userId);
+            throw new UnauthorizedException("Your account is not active");
+        }
+
+        // Controllers bind the User entity as principal, so it is still resolved, but through the cache
+        User currentUser = resolveUser(userId);
+        List<SimpleGrantedAuthority> authorities = claims.roles().stream()
+                .map(SimpleGrantedAuthority::new)
+                .toList();
+
+        logger.debug("User authenticated from token claims: {}", userId);
+        return new UsernamePasswordAuthenticationToken(currentUser, null, authorities);
+    }
+
+    private Authentication authenticateFromUser(UUID userId) {
+        User currentUser = resolveUser(userId);
+
+        // Check if user is banned
+        if (currentUser.getStatus() == UserStatus.BANNED) {
+            logger.error("Banned user attempted to access: {}", currentUser.getEmail());
+            throw new UnauthorizedException("Your account has been banned. Reason: " + 
+                currentUser.getModerationReason());
+        }
+
+        // Check if user is suspended
+        if (currentUser.getStatus() == UserStatus.SUSPENDED) {
+            if (currentUser.getSuspensionEndDate().isAfter(LocalDateTime.now())) {
+                logger.error("Suspended user attempted to access: {}", currentUser.getEmail());
+                throw new UnauthorizedException("Your account is suspended until " + 
+                    currentUser.getSuspensionEndDate() + ". Reason: " + 
+                    currentUser.getModerationReason());
+            } else {
+                // If suspension period is over, automatically reactivate the account. The cached instance is
+                // shared with concurrent requests, so it is dropped and a freshly loaded one is changed instead
+                principalCache.evict(userId);
+                User reactivated = usersService.findById(userId);
+                reactivated.setStatus(UserStatus.ACTIVE);
+                reactivated.setSuspensionEndDate(null);
+                reactivated.setModerationReason(null);
+                currentUser = usersService.save(reactivated);
+                principalCache.put(currentUser);
+            }
+        }
+
+        logger.debug("User authenticated successfully: {}", currentUser.getEmail());
+        return new UsernamePasswordAuthenticationToken(currentUser, null, currentUser.getAuthorities());
+    }
+
+    private User resolveUser(UUID userId) {
+        User currentUser = principalCache.get(userId);
+        if (currentUser == null) {
+            currentUser = this.usersService.findById(userId);
+            principalCache.put(currentUser);
+        }
+        return currentUser;
+    }
+
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
-        return new AntPathMatcher().match("/auth/**", request.getServletPath()) ||
-                new AntPathMatcher().match("/categories", request.getServletPath()) ||
-                (request.getMethod().equals("GET") && 
-                 new AntPathMatcher().match("/posts", request.getServletPath()) &&
-                 new AntPathMatcher().match("/posts/**", request.getServletPath()) &&
-                 !request.getServletPath().contains("/me")) ||
-                new AntPathMatcher().match("/social-profiles", request.getServletPath()) ||
-                new AntPathMatcher().match("/social-profiles/*/public", request.getServletPath()) ||
-                new AntPathMatcher().match("/v3/api-docs/**", request.getServletPath()) ||
-                new AntPathMatcher().match("/swagger-ui/**", request.getServletPath());
+        return publicPathMatcher.skipsAuthentication(request);
     }
 }
@@ -0,0 +1,60 @@
+package project_idea.idea.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import project_idea.idea.entities.User;
+import project_idea.idea.tools.TtlCache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Caches the authenticated {@link User} resolved by {@link JWTCheckerFilter} so that
+ * repeated requests with the same token don't reload the user and its eager collections.
+ * Services that change status, roles or profile data must call {@link #evict(UUID)}.
+ */
+@Component
+public class PrincipalCache {
+    private final TtlCache<UUID, User> cache;
+
+    public PrincipalCache(@Value("${security.principal-cache.max-entries:10000}") int maxEntries,
+                          @Value("${security.principal-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.cache = new TtlCache<>(maxEntries, Duration.ofSeconds(ttlSeconds));
+    }
+
+    public User get(UUID userId) {
+        return cache.get(userId);
+    }
+
+    public void put(User user) {
+        cache.put(user.getId(), user);
+    }
+
+    public void evict(UUID userId) {
+        cache.evict(userId);
+
+        // A concurrent request could reload the old row before the transaction commits,
+        // so evict again once the change is visible to everyone
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.evict(userId);
+                }
+            });
+        }
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("size", (long) cache.size());
+        stats.put("hits", cache.getHits());
+        stats.put("misses", cache.getMisses());
+        stats.put("evictions", cache.getEvictions());
+        return stats;
+    }
+}
@@ -0,0 +1,76 @@
+package project_idea.idea.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decides whether {@link JWTCheckerFilter} can skip a request. Patterns are parsed once at startup
+ * and indexed by their first path segment, so a request is only tested against the few patterns
+ * that share its first segment.
+ */
+@Component
+public class PublicPathMatcher {
+    private record CompiledRoute(HttpMethod method, PathPattern pattern) {}
+
+    private final Map<String, List<CompiledRoute>> routesBySegment = new HashMap<>();
+    private final List<CompiledRoute> wildcardRoutes = new ArrayList<>();
+
+    public PublicPathMatcher() {
+        this(PublicRoutes.ROUTES);
+    }
+
+    PublicPathMatcher(List<PublicRoutes.PublicRoute> routes) {
+        PathPatternParser parser = new PathPatternParser();
+        for (PublicRoutes.PublicRoute route : routes) {
+            if (!route.skipsAuthentication()) {
+                continue;
+            }
+            CompiledRoute compiled = new CompiledRoute(route.method(), parser.parse(route.pattern()));
+            String segment = firstSegment(route.pattern());
+            if (segment.isEmpty() || segment.contains("*") || segment.contains("{")) {
+                wildcardRoutes.add(compiled);
+            } else {
+                routesBySegment.computeIfAbsent(segment, key -> new ArrayList<>()).add(compiled);
+            }
+        }
+    }
+
+    public boolean skipsAuthentication(HttpServletRequest request) {
+        String path = request.getServletPath();
+        List<CompiledRoute> candidates = routesBySegment.get(firstSegment(path));
+        if (candidates == null && wildcardRoutes.isEmpty()) {
+            return false;
+        }
+
+        PathContainer pathContainer = PathContainer.parsePath(path);
+        String method = request.getMethod();
+        return matchesAny(candidates, method, pathContainer) || matchesAny(wildcardRoutes, method, pathContainer);
+    }
+
+    private boolean matchesAny(List<CompiledRoute> routes, String method, PathContainer path) {
+        if (routes == null) {
+            return false;
+        }
+        for (CompiledRoute route : routes) {
+            if ((route.method() == null || route.method().matches(method)) && route.pattern().matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String firstSegment(String path) {
+        int start = path.startsWith("/") ? 1 : 0;
+        int end = path.indexOf('/', start);
+        return end == -1 ? path.substring(start) : path.substring(start, end);
+    }
+}
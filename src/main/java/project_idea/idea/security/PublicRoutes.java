@@ -0,0 +1,31 @@
+package project_idea.idea.security;
+
+import org.springframework.http.HttpMethod;
+
+import java.util.List;
+
+/**
+ * Single list of routes that don't require authentication. {@link SecurityConfig} permits all of them,
+ * while {@link JWTCheckerFilter} skips token processing entirely only for the ones marked with
+ * {@code skipsAuthentication}: the others still resolve the principal when a token is sent, because
+ * their controllers behave differently for authenticated users.
+ */
+public final class PublicRoutes {
+    public record PublicRoute(HttpMethod method, String pattern, boolean skipsAuthentication) {}
+
+    public static final List<PublicRoute> ROUTES = List.of(
+        new PublicRoute(null, "/auth/**", true),
+        new PublicRoute(null, "/categories", true),
+        new PublicRoute(HttpMethod.GET, "/posts", true),
+        new PublicRoute(HttpMethod.GET, "/posts/**", false),
+        new PublicRoute(HttpMethod.GET, "/threads/**", false),
+        new PublicRoute(null, "/social-profiles", true),
+        new PublicRoute(null, "/social-profiles/*/public", true),
+        new PublicRoute(HttpMethod.GET, "/blobs/**", true),
+        new PublicRoute(null, "/v3/api-docs/**", true),
+        new PublicRoute(null, "/swagger-ui/**", true)
+    );
+
+    private PublicRoutes() {
+    }
+}
@@ -4,7 +4,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.HttpMethod;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -39,19 +38,14 @@ public class SecurityConfig {
         httpSecurity.addFilterBefore(jwtCheckerFilter, UsernamePasswordAuthenticationFilter.class);
         httpSecurity.csrf(httpSecurityCsrfConfigurer -> httpSecurityCsrfConfigurer.disable());
         
-        httpSecurity.authorizeHttpRequests(auth -> auth
-            .requestMatchers("/categories").permitAll()
-            .requestMatchers("/social-profiles").permitAll()
-            .requestMatchers(HttpMethod.GET, "/posts/**").permitAll()
-            .requestMatchers(HttpMethod.GET, "/threads/**").permitAll()
-            .requestMatchers("/moderation/**").hasAuthority("ADMIN")
-            .requestMatchers("/social-profiles/*/public").permitAll() 
-            .requestMatchers("/social-profiles/me/**").authenticated()
-            .requestMatchers("/posts/me/**").authenticated()
-            .requestMatchers("/auth/**").permitAll()
-            .requestMatchers("/v3/api-docs/**", "/swagger-ui/**").permitAll()
-            .anyRequest().authenticated()
-        );
+        httpSecurity.authorizeHttpRequests(auth -> {
+            PublicRoutes.ROUTES.forEach(route -> auth.requestMatchers(route.method(), route.pattern()).permitAll());
+            auth
+                .requestMatchers("/moderation/**").hasAuthority("ADMIN")
+                .requestMatchers("/social-profiles/me/**").authenticated()
+                .requestMatchers("/posts/me/**").authenticated()
+                .anyRequest().authenticated();
+        });
 
         httpSecurity.sessionManagement(httpSecuritySessionManagementConfigurer ->
                 httpSecuritySessionManagementConfigurer.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
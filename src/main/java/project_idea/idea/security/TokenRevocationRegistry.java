@@ -0,0 +1,55 @@
+package project_idea.idea.security;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import project_idea.idea.repositories.UsersRepository;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the minimum token version still accepted for every user whose status or roles changed.
+ * Only users with a bumped version are tracked, so the map stays small; it is reloaded from the
+ * users table at startup so revocations survive a restart.
+ */
+@Component
+public class TokenRevocationRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationRegistry.class);
+
+    private final Map<UUID, Long> minimumVersions = new ConcurrentHashMap<>();
+
+    @Autowired
+    private UsersRepository usersRepository;
+
+    @PostConstruct
+    void load() {
+        usersRepository.findRevokedTokenVersions()
+                .forEach(view -> minimumVersions.put(view.getId(), view.getTokenVersion()));
+        logger.info("Loaded {} token revocation entries", minimumVersions.size());
+    }
+
+    public void revokeBefore(UUID userId, long minimumVersion) {
+        // Only apply once the bumped version is committed, otherwise a rollback would lock the user out
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    minimumVersions.merge(userId, minimumVersion, Math::max);
+                }
+            });
+        } else {
+            minimumVersions.merge(userId, minimumVersion, Math::max);
+        }
+    }
+
+    public boolean isRevoked(UUID userId, long tokenVersion) {
+        Long minimumVersion = minimumVersions.get(userId);
+        return minimumVersion != null && tokenVersion < minimumVersion;
+    }
+}
@@ -1,21 +1,27 @@
 package project_idea.idea.services;
 
-import com.cloudinary.Cloudinary;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import project_idea.idea.entities.Attachment;
 import project_idea.idea.entities.Project;
+import project_idea.idea.entities.UploadJob;
 import project_idea.idea.entities.User;
+import project_idea.idea.enums.UploadTarget;
 import project_idea.idea.exceptions.BadRequestException;
 import project_idea.idea.exceptions.NotFoundException;
 import project_idea.idea.repositories.AttachmentRepository;
 import project_idea.idea.repositories.ProjectRepository;
+import project_idea.idea.services.BlobStore.StoredBlob;
+import project_idea.idea.services.UploadStagingService.StagedUpload;
 
 import java.io.IOException;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -27,7 +33,13 @@ public class AttachmentService {
     private ProjectRepository projectRepository;
 
     @Autowired
-    private Cloudinary cloudinaryUploader;
+    private BlobStore blobStore;
+
+    @Autowired
+    private UploadJobService uploadJobService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
 
     private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB
     private static final String[] ALLOWED_CONTENT_TYPES = {
@@ -38,6 +50,20 @@ public class AttachmentService {
     };
 
     public Attachment uploadAttachment(UUID projectId, MultipartFile file, User currentUser) {
+        validateAttachmentUpload(projectId, file, currentUser);
+        AttachmentMetadata metadata = AttachmentMetadata.of(file);
+        return uploadJobService.uploadNow(file, MAX_FILE_SIZE, staged -> storeAttachment(projectId, staged, metadata));
+    }
+
+    // Returns at once; the job reports the attachment id when it has been stored
+    public UploadJob uploadAttachmentAsync(UUID projectId, MultipartFile file, User currentUser) {
+        validateAttachmentUpload(projectId, file, currentUser);
+        AttachmentMetadata metadata = AttachmentMetadata.of(file);
+        return uploadJobService.submit(file, MAX_FILE_SIZE, UploadTarget.ATTACHMENT, projectId, currentUser,
+                staged -> storeAttachment(projectId, staged, metadata), Attachment::getId);
+    }
+
+    private void validateAttachmentUpload(UUID projectId, MultipartFile file, User currentUser) {
         Project project = projectRepository.findById(projectId)
                 .orElseThrow(() -> new NotFoundException("Project not found"));
 
@@ -48,25 +74,41 @@ public class AttachmentService {
         }
 
         validateFile(file);
+    }
 
-        try {
-            Map<String, String> options = new HashMap<>();
-            options.put("resource_type", "auto");
-            options.put("folder", "project-attachments/" + projectId);
+    // Content already stored under the same hash is referenced instead of uploaded again. The reuse runs
+    // under the same row locks as deleteAttachment, so the blob can't be released while a new row points at it
+    private Attachment storeAttachment(UUID projectId, StagedUpload staged, AttachmentMetadata metadata) throws IOException {
+        Attachment reused = transactionTemplate.execute(status -> attachmentRepository.findByContentHash(staged.sha256()).stream()
+                .filter(existing -> existing.getFileSize() == staged.size())
+                .findFirst()
+                .map(existing -> attachmentRepository.save(newAttachment(projectId, staged, metadata,
+                        new StoredBlob(existing.getCloudinaryUrl(), existing.getCloudinaryPublicId()))))
+                .orElse(null));
+        if (reused != null) {
+            return reused;
+        }
 
-            Map uploadResult = cloudinaryUploader.uploader().upload(file.getBytes(), options);
+        StoredBlob blob = blobStore.upload(staged.path(), "project-attachments/" + projectId, "auto");
+        return attachmentRepository.save(newAttachment(projectId, staged, metadata, blob));
+    }
 
-            Attachment attachment = new Attachment();
-            attachment.setProject(project);
-            attachment.setFileName(file.getOriginalFilename());
-            attachment.setFileType(file.getContentType());
-            attachment.setFileSize(file.getSize());
-            attachment.setCloudinaryUrl((String) uploadResult.get("url"));
-            attachment.setCloudinaryPublicId((String) uploadResult.get("public_id"));
+    private Attachment newAttachment(UUID projectId, StagedUpload staged, AttachmentMetadata metadata, StoredBlob blob) {
+        Attachment attachment = new Attachment();
+        attachment.setProject(projectRepository.getReferenceById(projectId));
+        attachment.setFileName(metadata.fileName());
+        attachment.setFileType(metadata.fileType());
+        attachment.setFileSize(staged.size());
+        attachment.setContentHash(staged.sha256());
+        attachment.setCloudinaryUrl(blob.url());
+        attachment.setCloudinaryPublicId(blob.publicId());
+        return attachment;
+    }
 
-            return attachmentRepository.save(attachment);
-        } catch (IOException e) {
-            throw new BadRequestException("Failed to upload file: " + e.getMessage());
+    // Read on the request thread, since the MultipartFile is gone once a background upload runs
+    private record AttachmentMetadata(String fileName, String fileType) {
+        static AttachmentMetadata of(MultipartFile file) {
+            return new AttachmentMetadata(file.getOriginalFilename(), file.getContentType());
         }
     }
 
@@ -97,6 +139,26 @@ public class AttachmentService {
         return attachmentRepository.findByProjectId(projectId);
     }
 
+    public Attachment getProjectAttachment(UUID projectId, UUID attachmentId) {
+        return attachmentRepository.findById(attachmentId)
+                .filter(attachment -> attachment.getProject().getId().equals(projectId))
+                .orElseThrow(() -> new NotFoundException("Attachment not found"));
+    }
+
+    // Opened lazily: the bytes are only read while the response is written
+    public Resource openAttachment(Attachment attachment) {
+        try {
+            Resource resource = blobStore.open(new StoredBlob(attachment.getCloudinaryUrl(), attachment.getCloudinaryPublicId()));
+            if (!resource.exists()) {
+                throw new NotFoundException("Attachment file not found");
+            }
+            return resource;
+        } catch (IOException e) {
+            throw new NotFoundException("Attachment file not found");
+        }
+    }
+
+    @Transactional
     public void deleteAttachment(UUID attachmentId, User currentUser) {
         Attachment attachment = attachmentRepository.findById(attachmentId)
                 .orElseThrow(() -> new NotFoundException("Attachment not found"));
@@ -107,12 +169,21 @@ public class AttachmentService {
             throw new BadRequestException("Only project author or participants can delete attachments");
         }
 
-        try {
-            cloudinaryUploader.uploader().destroy(attachment.getCloudinaryPublicId(), Map.of());
-        } catch (IOException e) {
-            throw new BadRequestException("Failed to delete file from storage: " + e.getMessage());
+        // The row goes first; the blob goes only with the last row that references it, once that is committed
+        String publicId = attachment.getCloudinaryPublicId();
+        if (attachment.getContentHash() != null) {
+            attachmentRepository.findByContentHash(attachment.getContentHash());
         }
-
         attachmentRepository.delete(attachment);
+        attachmentRepository.flush();
+
+        if (attachmentRepository.countByCloudinaryPublicId(publicId) == 0) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    uploadJobService.deleteLater(publicId);
+                }
+            });
+        }
     }
 }
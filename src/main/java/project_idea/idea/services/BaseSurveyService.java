@@ -31,6 +31,9 @@ public abstract class BaseSurveyService<T extends BaseSurvey> {
     @Autowired
     protected ThreadService threadService;
 
+    @Autowired
+    protected FeedInboxService feedInboxService;
+
     protected BaseSurveyService(PostRepository<T> repository) {
         this.repository = repository;
     }
@@ -108,7 +111,9 @@ public abstract class BaseSurveyService<T extends BaseSurvey> {
             survey.setLanguage(author.getPreferredLanguage());
         }
         
-        return repository.save(survey);
+        T saved = repository.save(survey);
+        feedInboxService.onPostCreated(saved);
+        return saved;
     }
 
     public Page<T> getAllSurveys(int page, int size, String sortBy) {
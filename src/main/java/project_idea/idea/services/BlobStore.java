@@ -0,0 +1,22 @@
+package project_idea.idea.services;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Where uploaded files end up, selected with {@code storage.backend}: "cloudinary" (default)
+ * or "local", which keeps files on disk and needs no credentials.
+ */
+public interface BlobStore {
+    // resourceType follows Cloudinary's naming: "image", "raw" or "auto"
+    StoredBlob upload(Path file, String folder, String resourceType) throws IOException;
+
+    void delete(String publicId) throws IOException;
+
+    // Streams a stored file back without loading it; the resource may not exist if the blob was removed
+    Resource open(StoredBlob blob) throws IOException;
+
+    record StoredBlob(String url, String publicId) {}
+}
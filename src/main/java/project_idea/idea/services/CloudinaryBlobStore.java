@@ -0,0 +1,41 @@
+package project_idea.idea.services;
+
+import com.cloudinary.Cloudinary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.UrlResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "cloudinary", matchIfMissing = true)
+public class CloudinaryBlobStore implements BlobStore {
+    @Autowired
+    private Cloudinary cloudinaryUploader;
+
+    @Value("${storage.cloudinary.chunk-size:6000000}")
+    private int chunkSize;
+
+    // uploadLarge sends the file in chunk-size parts read from disk, so only one chunk is held in memory
+    @Override
+    public StoredBlob upload(Path file, String folder, String resourceType) throws IOException {
+        Map uploadResult = cloudinaryUploader.uploader().uploadLarge(file.toFile(),
+                Map.of("folder", folder, "resource_type", resourceType, "chunk_size", chunkSize));
+        return new StoredBlob((String) uploadResult.get("url"), (String) uploadResult.get("public_id"));
+    }
+
+    @Override
+    public void delete(String publicId) throws IOException {
+        cloudinaryUploader.uploader().destroy(publicId, Map.of());
+    }
+
+    @Override
+    public Resource open(StoredBlob blob) throws IOException {
+        return new UrlResource(blob.url());
+    }
+}
@@ -0,0 +1,200 @@
+package project_idea.idea.services;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import project_idea.idea.entities.Category;
+import project_idea.idea.entities.FeedInboxEntry;
+import project_idea.idea.entities.Post;
+import project_idea.idea.entities.User;
+import project_idea.idea.enums.Visibility;
+import project_idea.idea.repositories.FeedInboxRepository;
+import project_idea.idea.repositories.PostRepository;
+import project_idea.idea.repositories.UsersRepository;
+import project_idea.idea.utils.FeedCursor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Optional fan-out-on-write suggested feed. New posts are copied into the inboxes of the users
+ * interested in their categories by a background worker, and readers page their inbox by keyset.
+ * Categories with too many followers are not fanned out; their posts are pulled at read time
+ * and merged into the inbox page.
+ */
+@Service
+public class FeedInboxService {
+    private static final Logger logger = LoggerFactory.getLogger(FeedInboxService.class);
+
+    // Stand-in for "no value" in <> parameters, which must not be null
+    private static final UUID NO_ID = new UUID(0, 0);
+
+    @Autowired
+    private FeedInboxRepository feedInboxRepository;
+
+    @Autowired
+    private UsersRepository usersRepository;
+
+    @Autowired
+    private PostRepository<Post> postRepository;
+
+    private final boolean enabled;
+    private final long maxFollowersPerCategory;
+    private final int inboxSize;
+    private final ThreadPoolExecutor fanOutExecutor;
+
+    private volatile Set<UUID> highFanoutCategoryIds = Set.of();
+
+    public FeedInboxService(@Value("${feed.fanout.enabled:false}") boolean enabled,
+                            @Value("${feed.fanout.max-followers-per-category:5000}") long maxFollowersPerCategory,
+                            @Value("${feed.fanout.inbox-size:500}") int inboxSize,
+                            @Value("${feed.fanout.workers:2}") int workers,
+                            @Value("${feed.fanout.queue-capacity:1000}") int queueCapacity) {
+        this.enabled = enabled;
+        this.maxFollowersPerCategory = maxFollowersPerCategory;
+        this.inboxSize = inboxSize;
+        // When the queue is full the creating request runs the fan-out itself, which slows writers down instead of dropping posts
+        this.fanOutExecutor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("feed-fanout-", 0).daemon().factory(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Called after a post is saved; the fan-out only starts once the post is committed
+    public void onPostCreated(Post post) {
+        if (!enabled) {
+            return;
+        }
+        UUID postId = post.getId();
+        LocalDateTime createdAt = post.getCreatedAt();
+        UUID authorUserId = post.getAuthorProfile().getUser().getId();
+        List<UUID> categoryIds = post.getCategories().stream().map(Category::getId).collect(Collectors.toList());
+        if (categoryIds.isEmpty()) {
+            return;
+        }
+
+        Runnable task = () -> fanOut(postId, createdAt, categoryIds, authorUserId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    fanOutExecutor.execute(task);
+                }
+            });
+        } else {
+            fanOutExecutor.execute(task);
+        }
+    }
+
+    private void fanOut(UUID postId, LocalDateTime createdAt, List<UUID> categoryIds, UUID authorUserId) {
+        Set<UUID> pulled = highFanoutCategoryIds;
+        List<UUID> pushed = categoryIds.stream().filter(id -> !pulled.contains(id)).collect(Collectors.toList());
+        if (pushed.isEmpty()) {
+            return;
+        }
+        try {
+            int delivered = feedInboxRepository.fanOut(postId, createdAt, pushed, authorUserId);
+            logger.debug("Delivered post {} to {} inboxes", postId, delivered);
+        } catch (RuntimeException e) {
+            logger.error("Failed to fan out post {}: {}", postId, e.getMessage());
+        }
+    }
+
+    // Merges the user's inbox with the pulled high-fanout categories they follow, both seeking on (createdAt, id)
+    public Slice<Post> getInboxPage(User currentUser, FeedCursor after, int size) {
+        LocalDateTime createdAt = after != null ? after.createdAt() : null;
+        UUID id = after != null ? after.id() : null;
+        PageRequest limit = PageRequest.of(0, size + 1);
+
+        Map<UUID, LocalDateTime> keys = new LinkedHashMap<>();
+        Map<UUID, Post> pulledPosts = new LinkedHashMap<>();
+        for (FeedInboxEntry entry : feedInboxRepository.findInboxPage(currentUser.getId(), createdAt, id, limit)) {
+            keys.put(entry.getPostId(), entry.getPostCreatedAt());
+        }
+
+        List<UUID> pulledCategoryIds = currentUser.getInterests().stream()
+                .map(Category::getId)
+                .filter(highFanoutCategoryIds::contains)
+                .collect(Collectors.toList());
+        if (!pulledCategoryIds.isEmpty()) {
+            UUID ownProfileId = currentUser.getSocialProfile() != null ? currentUser.getSocialProfile().getId() : NO_ID;
+            for (Post post : postRepository.findCategoryFeedPage(Visibility.ACTIVE, pulledCategoryIds, ownProfileId,
+                    createdAt, id, limit)) {
+                keys.put(post.getId(), post.getCreatedAt());
+                pulledPosts.put(post.getId(), post);
+            }
+        }
+
+        List<UUID> pageIds = keys.entrySet().stream()
+                // Ties compare ids as text, which matches PostgreSQL's unsigned uuid ordering used by the cursor
+                .sorted(Map.Entry.<UUID, LocalDateTime>comparingByValue()
+                        .thenComparing(entry -> entry.getKey().toString())
+                        .reversed())
+                .map(Map.Entry::getKey)
+                .limit(size + 1)
+                .collect(Collectors.toCollection(ArrayList::new));
+        boolean hasNext = pageIds.size() > size;
+        if (hasNext) {
+            pageIds = pageIds.subList(0, size);
+        }
+
+        List<UUID> missing = pageIds.stream().filter(postId -> !pulledPosts.containsKey(postId)).collect(Collectors.toList());
+        Map<UUID, Post> byId = new LinkedHashMap<>(pulledPosts);
+        if (!missing.isEmpty()) {
+            postRepository.findByIdIn(missing).forEach(post -> byId.put(post.getId(), post));
+        }
+        // Posts hidden or deleted after delivery are skipped
+        List<Post> content = pageIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .filter(post -> post.getVisibility() == Visibility.ACTIVE)
+                .collect(Collectors.toList());
+        return new SliceImpl<>(content, PageRequest.of(0, size), hasNext);
+    }
+
+    @Scheduled(fixedDelayString = "${feed.fanout.high-fanout-refresh-ms:300000}")
+    public void refreshHighFanoutCategories() {
+        if (!enabled) {
+            return;
+        }
+        highFanoutCategoryIds = Set.copyOf(usersRepository.findCategoryIdsFollowedByMoreThan(maxFollowersPerCategory));
+        logger.debug("{} categories are served by pull instead of fan-out", highFanoutCategoryIds.size());
+    }
+
+    @Scheduled(cron = "${feed.fanout.trim-cron:0 0 4 * * *}")
+    public void trimInboxes() {
+        if (!enabled) {
+            return;
+        }
+        int removed = feedInboxRepository.trimInboxes(inboxSize);
+        logger.info("Trimmed {} feed inbox entries beyond {} per user", removed, inboxSize);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanOutExecutor.shutdown();
+    }
+}
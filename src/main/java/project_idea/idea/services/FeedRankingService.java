@@ -0,0 +1,187 @@
+package project_idea.idea.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import project_idea.idea.entities.Category;
+import project_idea.idea.entities.Post;
+import project_idea.idea.entities.User;
+import project_idea.idea.enums.PostType;
+import project_idea.idea.enums.Visibility;
+import project_idea.idea.repositories.PostRepository;
+import project_idea.idea.repositories.PostRepository.RankingCandidate;
+import project_idea.idea.tools.TtlCache;
+import project_idea.idea.utils.FeedCursor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Ranks the suggested feed: a bounded window of recent posts is scored against the reader's
+ * interests, language and user type, and the best ones are kept with a fixed-size heap.
+ * The ranked ids are cached per user for a short TTL so scrolling through pages doesn't rescore.
+ * Once a reader scrolls past the ranked posts, the feed continues with all the other posts by recency.
+ */
+@Service
+public class FeedRankingService {
+    private static final double CATEGORY_WEIGHT = 3.0;
+    private static final double LANGUAGE_WEIGHT = 1.5;
+    private static final double RECENCY_WEIGHT = 2.0;
+    private static final double FEATURED_WEIGHT = 1.0;
+    private static final double TYPE_AFFINITY_WEIGHT = 1.0;
+
+    // Stand-in for "no value" in IN / <> parameters, which must not be empty or null
+    private static final UUID NO_ID = new UUID(0, 0);
+
+    @Autowired
+    private PostRepository<Post> postRepository;
+
+    private final int candidateLimit;
+    private final int rankedLimit;
+    private final double halfLifeHours;
+    private final TtlCache<UUID, List<RankedPost>> rankedFeeds;
+
+    public FeedRankingService(@Value("${feed.ranking.candidate-limit:500}") int candidateLimit,
+                              @Value("${feed.ranking.ranked-limit:200}") int rankedLimit,
+                              @Value("${feed.ranking.half-life-hours:48}") double halfLifeHours,
+                              @Value("${feed.ranking.cache-max-entries:10000}") int cacheMaxEntries,
+                              @Value("${feed.ranking.cache-ttl-seconds:120}") long cacheTtlSeconds) {
+        this.candidateLimit = candidateLimit;
+        this.rankedLimit = rankedLimit;
+        this.halfLifeHours = halfLifeHours;
+        this.rankedFeeds = new TtlCache<>(cacheMaxEntries, Duration.ofSeconds(cacheTtlSeconds));
+    }
+
+    public List<RankedPost> getRankedFeed(User user) {
+        List<RankedPost> ranked = rankedFeeds.get(user.getId());
+        if (ranked == null) {
+            ranked = rank(user);
+            rankedFeeds.put(user.getId(), ranked);
+        }
+        return ranked;
+    }
+
+    // Called when interests or language change so the next request reflects them
+    public void evict(UUID userId) {
+        rankedFeeds.evict(userId);
+    }
+
+    // Offset pages run through the ranked posts first and then continue into the recency fallback
+    public List<UUID> getSuggestedIds(User user, long offset, int limit) {
+        List<RankedPost> ranked = getRankedFeed(user);
+        List<UUID> ids = new ArrayList<>();
+        for (long i = offset; i < ranked.size() && ids.size() < limit; i++) {
+            ids.add(ranked.get((int) i).id());
+        }
+        if (ids.size() < limit) {
+            ids.addAll(postRepository.findFallbackIds(ownProfileId(user), rankedIds(ranked), null, null,
+                    limit - ids.size(), Math.max(0, offset - ranked.size())));
+        }
+        return ids;
+    }
+
+    // The cursor names the last post served. A ranked one continues the ranking; any other is a position
+    // in the fallback. That is also where a cursor whose post dropped out of a refreshed ranking lands,
+    // so the reader goes on by recency from it instead of seeing ranked posts again.
+    public List<UUID> getSuggestedIdsAfter(User user, FeedCursor after, int limit) {
+        List<RankedPost> ranked = getRankedFeed(user);
+        int index = -1;
+        for (int i = 0; after != null && i < ranked.size() && index < 0; i++) {
+            if (ranked.get(i).id().equals(after.id())) index = i;
+        }
+
+        List<RankedPost> remaining = after == null ? ranked : index >= 0 ? ranked.subList(index + 1, ranked.size()) : List.of();
+        List<UUID> ids = remaining.stream().limit(limit).map(RankedPost::id).collect(Collectors.toCollection(ArrayList::new));
+        if (ids.size() < limit) {
+            FeedCursor fallbackAfter = index >= 0 ? null : after;
+            ids.addAll(postRepository.findFallbackIds(ownProfileId(user), rankedIds(ranked),
+                    fallbackAfter != null ? fallbackAfter.createdAt() : null, fallbackAfter != null ? fallbackAfter.id() : null,
+                    limit - ids.size(), 0));
+        }
+        return ids;
+    }
+
+    public long countSuggested(User user) {
+        List<RankedPost> ranked = getRankedFeed(user);
+        return ranked.size() + postRepository.countFallback(Visibility.ACTIVE, ownProfileId(user), rankedIds(ranked));
+    }
+
+    // Past the ranked window the feed falls back to every other active post, newest first. That includes
+    // the candidates that were scored but lost the heap, so no post is left out and none is served twice.
+    private static List<UUID> rankedIds(List<RankedPost> ranked) {
+        return ranked.isEmpty() ? List.of(NO_ID) : ranked.stream().map(RankedPost::id).collect(Collectors.toList());
+    }
+
+    private static UUID ownProfileId(User user) {
+        return user.getSocialProfile() != null ? user.getSocialProfile().getId() : NO_ID;
+    }
+
+    private List<RankedPost> rank(User user) {
+        List<UUID> interestIds = user.getInterests().stream().map(Category::getId).collect(Collectors.toList());
+        UUID ownProfileId = ownProfileId(user);
+
+        List<RankingCandidate> candidates = postRepository.findRankingCandidates(Visibility.ACTIVE,
+                interestIds.isEmpty() ? List.of(NO_ID) : interestIds, ownProfileId,
+                PageRequest.of(0, candidateLimit));
+
+        Set<PostType> preferredTypes = preferredTypes(user);
+        LocalDateTime now = LocalDateTime.now();
+
+        // Min-heap holding the current top K: each candidate costs O(log K) instead of sorting them all
+        Comparator<RankedPost> byScore = Comparator.comparingDouble(RankedPost::score)
+                .thenComparing(RankedPost::createdAt)
+                .thenComparing(RankedPost::id);
+        PriorityQueue<RankedPost> topK = new PriorityQueue<>(rankedLimit + 1, byScore);
+        for (RankingCandidate candidate : candidates) {
+            double score = score(candidate, interestIds.size(), user.getPreferredLanguage(), preferredTypes, now);
+            topK.offer(new RankedPost(candidate.getId(), candidate.getCreatedAt(), score));
+            if (topK.size() > rankedLimit) {
+                topK.poll();
+            }
+        }
+
+        List<RankedPost> ranked = new ArrayList<>(topK);
+        ranked.sort(byScore.reversed());
+        return Collections.unmodifiableList(ranked);
+    }
+
+    private double score(RankingCandidate candidate, int interestCount, String preferredLanguage,
+                         Set<PostType> preferredTypes, LocalDateTime now) {
+        double categoryOverlap = interestCount == 0 ? 0 : (double) candidate.getMatchingCategories() / interestCount;
+        double languageMatch = preferredLanguage != null && preferredLanguage.equalsIgnoreCase(candidate.getLanguage()) ? 1 : 0;
+        double ageHours = Math.max(0, (now.toEpochSecond(ZoneOffset.UTC) - candidate.getCreatedAt().toEpochSecond(ZoneOffset.UTC)) / 3600.0);
+        double recency = Math.pow(0.5, ageHours / halfLifeHours);
+        double featured = candidate.isFeatured() ? 1 : 0;
+        double typeAffinity = preferredTypes.contains(candidate.getType()) ? 1 : 0;
+
+        return CATEGORY_WEIGHT * categoryOverlap
+                + LANGUAGE_WEIGHT * languageMatch
+                + RECENCY_WEIGHT * recency
+                + FEATURED_WEIGHT * featured
+                + TYPE_AFFINITY_WEIGHT * typeAffinity;
+    }
+
+    // What the old per-user-type switch selected now only boosts the score
+    private Set<PostType> preferredTypes(User user) {
+        if (user.getUserType() == null) {
+            return Set.of();
+        }
+        return switch (user.getUserType()) {
+            case PROFESSIONAL -> Set.of(PostType.INQUIRY);
+            case INVESTOR -> Set.of(PostType.FUNDRAISER, PostType.PROJECT);
+            default -> Set.of();
+        };
+    }
+
+    public record RankedPost(UUID id, LocalDateTime createdAt, double score) {}
+}
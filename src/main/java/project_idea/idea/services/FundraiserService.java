@@ -27,6 +27,9 @@ public class FundraiserService {
     @Autowired
     private ThreadService threadService;
 
+    @Autowired
+    private FeedInboxService feedInboxService;
+
     public Fundraiser createFundraiser(NewFundraiserDTO fundraiserDTO, User author) {
         Fundraiser fundraiser = new Fundraiser();
         fundraiser.setTitle(fundraiserDTO.title());
@@ -61,7 +64,9 @@ public class FundraiserService {
             fundraiser.setLanguage(author.getPreferredLanguage());
         }
 
-        return fundraiserRepository.save(fundraiser);
+        Fundraiser saved = fundraiserRepository.save(fundraiser);
+        feedInboxService.onPostCreated(saved);
+        return saved;
     }
 
     public Fundraiser updateRaisedAmount(UUID fundraiserId, BigDecimal newAmount, User currentUser) {
@@ -0,0 +1,215 @@
+package project_idea.idea.services;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import project_idea.idea.entities.Post;
+import project_idea.idea.repositories.PostRepository;
+import project_idea.idea.repositories.SocialProfileRepository;
+import project_idea.idea.security.PrincipalCache;
+import project_idea.idea.services.BlobStore.StoredBlob;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates the resized copies of featured images and avatars after the original is stored:
+ * a thumbnail for cards and lists and a web-sized version for detail pages. Work runs on its own
+ * bounded pool, since decoding and scaling a large image is CPU and memory heavy.
+ */
+@Service
+public class ImageVariantService {
+    private static final Logger logger = LoggerFactory.getLogger(ImageVariantService.class);
+
+    private static final int FEATURED_THUMBNAIL_SIZE = 400;
+    private static final int FEATURED_WEB_SIZE = 1280;
+    private static final int AVATAR_THUMBNAIL_SIZE = 96;
+    private static final int AVATAR_WEB_SIZE = 512;
+    private static final long MAX_SOURCE_PIXELS = 40_000_000L;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private PostRepository<Post> postRepository;
+
+    @Autowired
+    private SocialProfileRepository socialProfileRepository;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    private final Path stagingDir;
+    private final ThreadPoolExecutor variantExecutor;
+
+    public ImageVariantService(@Value("${uploads.staging-dir:${java.io.tmpdir}}") String stagingDir,
+                               @Value("${images.variants.workers:2}") int workers,
+                               @Value("${images.variants.queue-capacity:50}") int queueCapacity) {
+        this.stagingDir = Path.of(stagingDir);
+        // When the queue is full the uploading thread generates the variants itself, which slows uploads down instead of dropping variants
+        this.variantExecutor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("image-variants-", 0).daemon().factory(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    // Called once the post points at the new image; the staged file is copied because the caller deletes it
+    public void featuredImageStored(UUID postId, StoredBlob image, Path stagedFile) throws IOException {
+        Path source = keep(stagedFile);
+        variantExecutor.execute(() -> {
+            try {
+                Variants variants = generate(source, "featured-images", FEATURED_THUMBNAIL_SIZE, FEATURED_WEB_SIZE);
+                if (variants != null && postRepository.setFeaturedImageVariants(postId, image.publicId(),
+                        variants.thumbnail().url(), variants.thumbnail().publicId(),
+                        variants.web().url(), variants.web().publicId()) == 0) {
+                    // The image was replaced while the variants were being made
+                    discard(variants);
+                }
+            } catch (Exception e) {
+                logger.error("Failed to generate variants for post {}: {}", postId, e.getMessage());
+            } finally {
+                delete(source);
+            }
+        });
+    }
+
+    public void avatarStored(UUID profileId, UUID userId, String avatarUrl, Path stagedFile) throws IOException {
+        Path source = keep(stagedFile);
+        variantExecutor.execute(() -> {
+            try {
+                Variants variants = generate(source, "avatars", AVATAR_THUMBNAIL_SIZE, AVATAR_WEB_SIZE);
+                if (variants == null) {
+                    return;
+                }
+                if (socialProfileRepository.setAvatarVariants(profileId, avatarUrl,
+                        variants.thumbnail().url(), variants.thumbnail().publicId(),
+                        variants.web().url(), variants.web().publicId()) == 0) {
+                    discard(variants);
+                } else {
+                    principalCache.evict(userId);
+                }
+            } catch (Exception e) {
+                logger.error("Failed to generate avatar variants for profile {}: {}", profileId, e.getMessage());
+            } finally {
+                delete(source);
+            }
+        });
+    }
+
+    // Returns null for formats ImageIO can't decode and for oversized images; those keep using the original everywhere
+    private Variants generate(Path source, String folder, int thumbnailSize, int webSize) throws IOException {
+        BufferedImage image = decode(source, webSize);
+        if (image == null) {
+            return null;
+        }
+        StoredBlob thumbnail = store(resize(image, thumbnailSize), folder + "/thumbnails");
+        StoredBlob web = store(resize(image, webSize), folder + "/web");
+        return new Variants(thumbnail, web);
+    }
+
+    // A small file can declare huge dimensions, so they are checked before decoding, and the decoder
+    // skips pixels to produce roughly targetSize instead of materializing the full image
+    private BufferedImage decode(Path source, int targetSize) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_SOURCE_PIXELS) {
+                    logger.warn("Skipping variants for a {}x{} image, above the {} pixel limit", width, height, MAX_SOURCE_PIXELS);
+                    return null;
+                }
+                int step = Math.max(1, Math.max(width, height) / targetSize);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Fits the image in a maxSize square; smaller images are only re-encoded
+    private BufferedImage resize(BufferedImage image, int maxSize) {
+        double scale = Math.min(1.0, (double) maxSize / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+        boolean alpha = image.getColorModel().hasAlpha();
+
+        BufferedImage resized = new BufferedImage(width, height, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return resized;
+    }
+
+    // JPEG unless the image has transparency, which JPEG can't hold
+    private StoredBlob store(BufferedImage image, String folder) throws IOException {
+        String format = image.getColorModel().hasAlpha() ? "png" : "jpg";
+        Path encoded = Files.createTempFile(stagingDir, "variant-", "." + format);
+        try {
+            ImageIO.write(image, format, encoded.toFile());
+            return blobStore.upload(encoded, folder, "image");
+        } finally {
+            delete(encoded);
+        }
+    }
+
+    private Path keep(Path stagedFile) throws IOException {
+        Path copy = Files.createTempFile(stagingDir, "variant-source-", ".tmp");
+        Files.copy(stagedFile, copy, StandardCopyOption.REPLACE_EXISTING);
+        return copy;
+    }
+
+    private void discard(Variants variants) {
+        for (StoredBlob blob : new StoredBlob[]{variants.thumbnail(), variants.web()}) {
+            try {
+                blobStore.delete(blob.publicId());
+            } catch (IOException | RuntimeException e) {
+                logger.error("Failed to delete stored file {}: {}", blob.publicId(), e.getMessage());
+            }
+        }
+    }
+
+    private void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete temp file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private record Variants(StoredBlob thumbnail, StoredBlob web) {}
+
+    @PreDestroy
+    public void shutdown() {
+        variantExecutor.shutdown();
+    }
+}
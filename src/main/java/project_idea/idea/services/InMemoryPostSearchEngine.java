@@ -0,0 +1,413 @@
+package project_idea.idea.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import project_idea.idea.entities.Category;
+import project_idea.idea.entities.Post;
+import project_idea.idea.enums.PostType;
+import project_idea.idea.enums.Visibility;
+import project_idea.idea.repositories.PostRepository;
+import project_idea.idea.utils.SearchCursor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-process inverted index over active posts, scored with BM25. Posting lists are parallel int
+ * arrays (doc number, term frequency); replaced or removed posts are tombstoned and the index is
+ * compacted once tombstones outnumber live posts.
+ * Rebuilt from the database at startup and kept current by {@link SearchIndexListener} after each commit.
+ */
+@Service
+@ConditionalOnProperty(name = "search.engine", havingValue = "memory")
+public class InMemoryPostSearchEngine implements PostSearchEngine {
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryPostSearchEngine.class);
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    // Title terms are counted this many times, so title matches outweigh description matches
+    private static final int TITLE_BOOST = 2;
+    private static final int REBUILD_BATCH_SIZE = 500;
+    private static final int MIN_COMPACTION_TOMBSTONES = 1024;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final PostType[] POST_TYPES = PostType.values();
+
+    @Autowired
+    private PostRepository<Post> postRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Document columns, indexed by doc number; guarded by lock
+    private UUID[] docIds = new UUID[1024];
+    private int[] docLengths = new int[1024];
+    private byte[] docTypes = new byte[1024];
+    private String[] docLanguages = new String[1024];
+    private UUID[][] docCategories = new UUID[1024][];
+    private final BitSet liveDocs = new BitSet();
+    private int docCount;
+    private int liveCount;
+    private long liveLength;
+    private final Map<UUID, Integer> docNumbers = new HashMap<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+        int posts = 0;
+        LocalDateTime createdAt = null;
+        UUID id = null;
+        List<Post> batch;
+        do {
+            LocalDateTime fromCreatedAt = createdAt;
+            UUID fromId = id;
+            List<IndexedPost> snapshots = new ArrayList<>();
+            // Categories aren't in the Post.list graph, so each batch is read inside a transaction
+            // where they can still be batch-fetched
+            batch = transactionTemplate.execute(status -> {
+                List<Post> rows = postRepository.findFeedPage(Visibility.DELETED, null, null, fromCreatedAt, fromId,
+                        PageRequest.of(0, REBUILD_BATCH_SIZE));
+                rows.forEach(post -> snapshots.add(IndexedPost.of(post)));
+                return rows;
+            });
+            snapshots.forEach(this::apply);
+            posts += snapshots.size();
+            if (!batch.isEmpty()) {
+                Post last = batch.get(batch.size() - 1);
+                createdAt = last.getCreatedAt();
+                id = last.getId();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+
+        logger.info("Indexed {} posts in {} ms", posts, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Override
+    public SearchHits search(String text, String language, SearchCursor after, int size, boolean withFacets) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(text));
+        lock.readLock().lock();
+        try {
+            int postingsSize = 0;
+            for (String term : terms) {
+                Postings termPostings = postings.get(term);
+                postingsSize += termPostings != null ? termPostings.size : 0;
+            }
+            // Only the docs on the query's posting lists get a score slot, whatever the size of the index
+            ScoreTable scores = new ScoreTable(postingsSize);
+            float averageLength = liveCount == 0 ? 1 : (float) liveLength / liveCount;
+
+            for (String term : terms) {
+                Postings termPostings = postings.get(term);
+                if (termPostings == null) {
+                    continue;
+                }
+                int documentFrequency = Math.min(termPostings.size, liveCount);
+                float idf = (float) Math.log(1 + (liveCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+                for (int i = 0; i < termPostings.size; i++) {
+                    int doc = termPostings.docs[i];
+                    if (!liveDocs.get(doc) || (language != null && !language.equals(docLanguages[doc]))) {
+                        continue;
+                    }
+                    int frequency = termPostings.frequencies[i];
+                    scores.add(doc, idf * frequency * (K1 + 1)
+                            / (frequency + K1 * (1 - B + B * docLengths[doc] / averageLength)));
+                }
+            }
+
+            // One pass over the matches collects facet counts and the next page
+            long[] typeCounts = new long[POST_TYPES.length];
+            Map<String, Long> languageCounts = new HashMap<>();
+            Map<String, Long> categoryCounts = new HashMap<>();
+            // The heap holds score table slots
+            Comparator<Integer> worstFirst = Comparator.<Integer>comparingDouble(scores::score)
+                    .thenComparing(slot -> docIds[scores.doc(slot)]);
+            PriorityQueue<Integer> best = new PriorityQueue<>(size + 2, worstFirst);
+
+            for (int slot = 0; slot < scores.capacity(); slot++) {
+                if (!scores.used(slot)) {
+                    continue;
+                }
+                int doc = scores.doc(slot);
+                if (withFacets) {
+                    typeCounts[docTypes[doc]]++;
+                    languageCounts.merge(String.valueOf(docLanguages[doc]), 1L, Long::sum);
+                    for (UUID categoryId : docCategories[doc]) {
+                        categoryCounts.merge(categoryId.toString(), 1L, Long::sum);
+                    }
+                }
+                float score = scores.score(slot);
+                if (after != null && (score > after.rank()
+                        || (score == after.rank() && docIds[doc].compareTo(after.id()) >= 0))) {
+                    continue;
+                }
+                best.offer(slot);
+                if (best.size() > size + 1) {
+                    best.poll();
+                }
+            }
+
+            List<Integer> ranked = new ArrayList<>(best);
+            ranked.sort(worstFirst.reversed());
+            boolean hasNext = ranked.size() > size;
+            if (hasNext) {
+                ranked = ranked.subList(0, size);
+            }
+            List<UUID> ids = ranked.stream().map(slot -> docIds[scores.doc(slot)]).toList();
+            SearchCursor next = null;
+            if (hasNext) {
+                int last = ranked.get(ranked.size() - 1);
+                next = new SearchCursor(scores.score(last), docIds[scores.doc(last)]);
+            }
+
+            Map<String, Map<String, Long>> facets = null;
+            if (withFacets) {
+                Map<String, Long> types = new HashMap<>();
+                for (int i = 0; i < typeCounts.length; i++) {
+                    if (typeCounts[i] > 0) types.put(POST_TYPES[i].name(), typeCounts[i]);
+                }
+                facets = Map.of(FACET_TYPE, types, FACET_LANGUAGE, languageCounts, FACET_CATEGORY, categoryCounts);
+            }
+            return new SearchHits(ids, hasNext, next, facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Listener callbacks run inside the writing transaction: the entity state is captured now
+    // and only applied once the transaction commits
+    @Override
+    public void postSaved(Post post) {
+        IndexedPost snapshot = IndexedPost.of(post);
+        afterCommit(() -> apply(snapshot));
+    }
+
+    @Override
+    public void postDeleted(UUID postId) {
+        afterCommit(() -> remove(postId));
+    }
+
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private void apply(IndexedPost post) {
+        if (!post.active()) {
+            remove(post.id());
+            return;
+        }
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : tokenize(post.title())) {
+            frequencies.merge(token, TITLE_BOOST, Integer::sum);
+        }
+        for (String token : tokenize(post.description())) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+
+        lock.writeLock().lock();
+        try {
+            tombstone(post.id());
+            ensureCapacity(docCount + 1);
+            int doc = docCount++;
+            docIds[doc] = post.id();
+            docLengths[doc] = length;
+            docTypes[doc] = (byte) post.type().ordinal();
+            docLanguages[doc] = post.language();
+            docCategories[doc] = post.categoryIds();
+            liveDocs.set(doc);
+            liveCount++;
+            liveLength += length;
+            docNumbers.put(post.id(), doc);
+            frequencies.forEach((term, frequency) -> postings.computeIfAbsent(term, t -> new Postings()).add(doc, frequency));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(UUID postId) {
+        lock.writeLock().lock();
+        try {
+            tombstone(postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private void tombstone(UUID postId) {
+        Integer doc = docNumbers.remove(postId);
+        if (doc == null) {
+            return;
+        }
+        liveDocs.clear(doc);
+        liveCount--;
+        liveLength -= docLengths[doc];
+        docIds[doc] = null;
+        docCategories[doc] = null;
+        if (docCount - liveCount > Math.max(MIN_COMPACTION_TOMBSTONES, liveCount)) {
+            compact();
+        }
+    }
+
+    // Drops tombstoned docs and renumbers the rest, rewriting each posting list in place
+    private void compact() {
+        int[] newNumbers = new int[docCount];
+        int next = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (liveDocs.get(doc)) {
+                newNumbers[doc] = next;
+                docIds[next] = docIds[doc];
+                docLengths[next] = docLengths[doc];
+                docTypes[next] = docTypes[doc];
+                docLanguages[next] = docLanguages[doc];
+                docCategories[next] = docCategories[doc];
+                docNumbers.put(docIds[next], next);
+                next++;
+            } else {
+                newNumbers[doc] = -1;
+            }
+        }
+        Arrays.fill(docIds, next, docCount, null);
+        Arrays.fill(docLanguages, next, docCount, null);
+        Arrays.fill(docCategories, next, docCount, null);
+        liveDocs.clear();
+        liveDocs.set(0, next);
+        docCount = next;
+        postings.values().removeIf(termPostings -> termPostings.renumber(newNumbers) == 0);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= docIds.length) {
+            return;
+        }
+        int newLength = Math.max(capacity, docIds.length * 2);
+        docIds = Arrays.copyOf(docIds, newLength);
+        docLengths = Arrays.copyOf(docLengths, newLength);
+        docTypes = Arrays.copyOf(docTypes, newLength);
+        docLanguages = Arrays.copyOf(docLanguages, newLength);
+        docCategories = Arrays.copyOf(docCategories, newLength);
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        // Doc numbers only grow, so every list stays sorted without extra work
+        void add(int doc, int frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        int renumber(int[] newNumbers) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = newNumbers[docs[i]];
+                if (doc >= 0) {
+                    docs[kept] = doc;
+                    frequencies[kept] = frequencies[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            return size;
+        }
+    }
+
+    // Open-addressing map from doc number to accumulated score, sized from the query's posting lists
+    private static final class ScoreTable {
+        // doc + 1, so 0 marks a free slot
+        private final int[] docs;
+        private final float[] scores;
+        private final int mask;
+
+        ScoreTable(int expectedDocs) {
+            int capacity = Integer.highestOneBit(Math.max(2, expectedDocs * 2 - 1)) << 1;
+            docs = new int[capacity];
+            scores = new float[capacity];
+            mask = capacity - 1;
+        }
+
+        void add(int doc, float score) {
+            int hash = doc * 0x9E3779B9;
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (docs[slot] != 0 && docs[slot] != doc + 1) {
+                slot = (slot + 1) & mask;
+            }
+            docs[slot] = doc + 1;
+            scores[slot] += score;
+        }
+
+        int capacity() {
+            return docs.length;
+        }
+
+        boolean used(int slot) {
+            return docs[slot] != 0;
+        }
+
+        int doc(int slot) {
+            return docs[slot] - 1;
+        }
+
+        float score(int slot) {
+            return scores[slot];
+        }
+    }
+
+    private record IndexedPost(UUID id, String title, String description, PostType type, String language,
+                               UUID[] categoryIds, boolean active) {
+        static IndexedPost of(Post post) {
+            return new IndexedPost(post.getId(), post.getTitle(), post.getDescription(), post.getType(),
+                    post.getLanguage(), post.getCategories().stream().map(Category::getId).toArray(UUID[]::new),
+                    post.getVisibility() == Visibility.ACTIVE);
+        }
+    }
+}
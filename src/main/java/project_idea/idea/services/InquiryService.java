@@ -33,6 +33,9 @@ public class InquiryService {
     @Autowired
     private ThreadService threadService;
 
+    @Autowired
+    private FeedInboxService feedInboxService;
+
     public Inquiry createInquiry(NewInquiryDTO inquiryDTO, User author) {
         Inquiry inquiry = new Inquiry();
         inquiry.setTitle(inquiryDTO.title());
@@ -67,7 +70,9 @@ public class InquiryService {
             inquiry.setLanguage(author.getPreferredLanguage());
         }
 
-        return inquiryRepository.save(inquiry);
+        Inquiry saved = inquiryRepository.save(inquiry);
+        feedInboxService.onPostCreated(saved);
+        return saved;
     }
 
     public InquiryApplication applyToInquiry(UUID inquiryId, InquiryApplicationDTO applicationDTO, User applicant) {
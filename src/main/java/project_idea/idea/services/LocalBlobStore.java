@@ -0,0 +1,81 @@
+package project_idea.idea.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+/**
+ * Keeps uploads on the local disk, for development, offline benchmarks and self-hosted deployments.
+ * Files are spread over two levels of subdirectories named after their id, written to a ".part" file
+ * and renamed into place once complete, so a reader never sees a partial file. BlobController serves
+ * them under {@code storage.local.base-url}.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+public class LocalBlobStore implements BlobStore {
+    private final Path root;
+    private final String baseUrl;
+
+    public LocalBlobStore(@Value("${storage.local.root:${java.io.tmpdir}/idea-blobs}") String root,
+                          @Value("${storage.local.base-url:/blobs/}") String baseUrl) {
+        this.root = Path.of(root).toAbsolutePath().normalize();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+    }
+
+    @Override
+    public StoredBlob upload(Path file, String folder, String resourceType) throws IOException {
+        String name = UUID.randomUUID().toString();
+        String publicId = folder + "/" + name.substring(0, 2) + "/" + name.substring(2, 4) + "/" + name;
+        Path target = resolve(publicId);
+        Files.createDirectories(target.getParent());
+
+        Path partial = target.resolveSibling(name + ".part");
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(partial, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            // transferFrom lets the kernel copy between the files without going through a Java buffer
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                position += out.transferFrom(in, position, size - position);
+            }
+            out.force(true);
+        } catch (IOException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+        return new StoredBlob(baseUrl + publicId, publicId);
+    }
+
+    @Override
+    public void delete(String publicId) throws IOException {
+        Files.deleteIfExists(resolve(publicId));
+    }
+
+    @Override
+    public Resource open(StoredBlob blob) {
+        return open(blob.publicId());
+    }
+
+    public Resource open(String publicId) {
+        return new FileSystemResource(resolve(publicId));
+    }
+
+    private Path resolve(String publicId) {
+        Path path = root.resolve(publicId).normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new IllegalArgumentException("Invalid blob id: " + publicId);
+        }
+        return path;
+    }
+}
@@ -18,6 +18,8 @@ import project_idea.idea.exceptions.NotFoundException;
 import project_idea.idea.repositories.ModeratorActionRepository;
 import project_idea.idea.repositories.PostRepository;
 import project_idea.idea.repositories.UsersRepository;
+import project_idea.idea.security.PrincipalCache;
+import project_idea.idea.security.TokenRevocationRegistry;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -33,6 +35,12 @@ public class ModeratorService {
     @Autowired
     private PostRepository<Post> postRepository;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
     @Transactional
     public ModeratorAction banUser(UUID targetUserId, String reason, User moderator) {
         User targetUser = usersRepository.findById(targetUserId)
@@ -45,7 +53,10 @@ public class ModeratorService {
         targetUser.setStatus(UserStatus.BANNED);
         targetUser.setModerationReason(reason);
         targetUser.setLastModeratedAt(LocalDateTime.now());
+        targetUser.setTokenVersion(targetUser.getTokenVersion() + 1);
         usersRepository.save(targetUser);
+        principalCache.evict(targetUserId);
+        tokenRevocationRegistry.revokeBefore(targetUserId, targetUser.getTokenVersion());
 
         ModeratorAction action = new ModeratorAction();
         action.setActionType(ModeratorActionType.USER_BAN);
@@ -69,7 +80,10 @@ public class ModeratorService {
         targetUser.setModerationReason(reason);
         targetUser.setSuspensionEndDate(duration);
         targetUser.setLastModeratedAt(LocalDateTime.now());
+        targetUser.setTokenVersion(targetUser.getTokenVersion() + 1);
         usersRepository.save(targetUser);
+        principalCache.evict(targetUserId);
+        tokenRevocationRegistry.revokeBefore(targetUserId, targetUser.getTokenVersion());
 
         ModeratorAction action = new ModeratorAction();
         action.setActionType(ModeratorActionType.USER_SUSPEND);
@@ -149,7 +163,10 @@ public class ModeratorService {
         user.setStatus(UserStatus.ACTIVE);
         user.setModerationReason(null);
         user.setLastModeratedAt(LocalDateTime.now());
+        user.setTokenVersion(user.getTokenVersion() + 1);
         usersRepository.save(user);
+        principalCache.evict(userId);
+        tokenRevocationRegistry.revokeBefore(userId, user.getTokenVersion());
     }
 
     @Transactional
@@ -165,7 +182,10 @@ public class ModeratorService {
         user.setModerationReason(null);
         user.setSuspensionEndDate(null);
         user.setLastModeratedAt(LocalDateTime.now());
+        user.setTokenVersion(user.getTokenVersion() + 1);
         usersRepository.save(user);
+        principalCache.evict(userId);
+        tokenRevocationRegistry.revokeBefore(userId, user.getTokenVersion());
     }
 
     @Transactional
@@ -2,18 +2,19 @@ package project_idea.idea.services;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import project_idea.idea.entities.MultipleChoiceResponse;
 import project_idea.idea.entities.MultipleChoiceSurvey;
 import project_idea.idea.entities.SocialProfile;
 import project_idea.idea.exceptions.BadRequestException;
 import project_idea.idea.payloads.survey.MultipleChoiceSurveyResponseDTO;
+import project_idea.idea.payloads.survey.SurveyWithStatsDTO;
 import project_idea.idea.repositories.MultipleChoiceResponseRepository;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 public class MultipleChoiceResponseService {
@@ -23,6 +24,10 @@ public class MultipleChoiceResponseService {
     @Autowired
     private MultipleChoiceSurveyService surveyService;
 
+    @Autowired
+    private SurveyTallyService surveyTallyService;
+
+    @Transactional
     public MultipleChoiceResponse submitResponse(UUID surveyId, MultipleChoiceSurveyResponseDTO responseDTO, SocialProfile currentProfile) {
         MultipleChoiceSurvey survey = surveyService.getSurveyById(surveyId);
         
@@ -53,7 +58,9 @@ public class MultipleChoiceResponseService {
 
         survey.getResponses().add(response);
 
-        return responseRepository.save(response);
+        MultipleChoiceResponse saved = responseRepository.save(response);
+        surveyTallyService.recordSelections(surveyId, saved.getSelectedOptions());
+        return saved;
     }
 
     public List<MultipleChoiceResponse> getSurveyResponses(UUID surveyId) {
@@ -62,17 +69,14 @@ public class MultipleChoiceResponseService {
     }
 
     public Map<String, Long> getResponseStatistics(UUID surveyId) {
-        MultipleChoiceSurvey survey = surveyService.getSurveyById(surveyId);
-        List<MultipleChoiceResponse> responses = responseRepository.findBySurvey(survey);
-        
-        return responses.stream()
-                .flatMap(response -> response.getSelectedOptions().stream())
-                .collect(Collectors.groupingBy(
-                        option -> option,
-                        Collectors.counting()
-                ));
+        return surveyService.getResponseStatistics(surveyId);
+    }
+
+    public SurveyWithStatsDTO getSurveyWithStats(UUID surveyId) {
+        return surveyService.getSurveyWithStats(surveyId);
     }
 
+    @Transactional
     public void deleteResponse(UUID responseId, SocialProfile currentUser) {
         MultipleChoiceResponse response = responseRepository.findById(responseId)
             .orElseThrow(() -> new BadRequestException("Response not found"));
@@ -82,6 +86,7 @@ public class MultipleChoiceResponseService {
             throw new BadRequestException("You can only delete your own responses or responses to your surveys");
         }
         
+        surveyTallyService.removeSelections(response.getSurvey().getId(), response.getSelectedOptions());
         responseRepository.delete(response);
     }
 }
@@ -1,27 +1,40 @@
 package project_idea.idea.services;
 
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import project_idea.idea.entities.MultipleChoiceSurvey;
 import project_idea.idea.entities.SocialProfile;
+import project_idea.idea.entities.User;
 import project_idea.idea.enums.PostType;
 import project_idea.idea.enums.Visibility;
 import project_idea.idea.exceptions.BadRequestException;
 import project_idea.idea.exceptions.NotFoundException;
 import project_idea.idea.payloads.survey.NewSurveyDTO;
 import project_idea.idea.payloads.survey.PartialSurveyUpdateDTO;
+import project_idea.idea.payloads.survey.SurveyWithStatsDTO;
+import project_idea.idea.repositories.MultipleChoiceResponseRepository;
+import project_idea.idea.repositories.MultipleChoiceResponseRepository.OptionCountView;
 import project_idea.idea.repositories.MultipleChoiceSurveyRepository;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 @Service
 public class MultipleChoiceSurveyService extends BaseSurveyService<MultipleChoiceSurvey> {
+    @Autowired
+    private MultipleChoiceResponseRepository responseRepository;
+
+    @Autowired
+    private SurveyTallyService surveyTallyService;
+
     public MultipleChoiceSurveyService(MultipleChoiceSurveyRepository repository) {
         super(repository);
     }
@@ -55,6 +68,21 @@ public class MultipleChoiceSurveyService extends BaseSurveyService<MultipleChoic
         return survey;
     }
 
+    @Override
+    @Transactional
+    public MultipleChoiceSurvey createSurvey(NewSurveyDTO surveyDTO, User author) {
+        MultipleChoiceSurvey survey = super.createSurvey(surveyDTO, author);
+        surveyTallyService.rebuild(survey.getId());
+        return survey;
+    }
+
+    @Override
+    @Transactional
+    public void deleteSurvey(UUID id, User currentUser) {
+        super.deleteSurvey(id, currentUser);
+        surveyTallyService.deleteTallies(id);
+    }
+
     public Page<MultipleChoiceSurvey> getAllSurveys(int page, int size, String sortBy) {
         if (size > 100) size = 100;
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy));
@@ -66,6 +94,7 @@ public class MultipleChoiceSurveyService extends BaseSurveyService<MultipleChoic
                 .orElseThrow(() -> new NotFoundException(id));
     }
 
+    @Transactional
     public void deleteSurvey(UUID id, SocialProfile currentUser) {
         MultipleChoiceSurvey survey = getSurveyById(id);
         
@@ -74,8 +103,10 @@ public class MultipleChoiceSurveyService extends BaseSurveyService<MultipleChoic
         }
 
         repository.delete(survey);
+        surveyTallyService.deleteTallies(id);
     }
 
+    @Transactional
     public MultipleChoiceSurvey updateSurvey(UUID id, @Valid NewSurveyDTO surveyDTO, SocialProfile currentUser) {
         MultipleChoiceSurvey survey = getSurveyById(id);
 
@@ -88,9 +119,12 @@ public class MultipleChoiceSurveyService extends BaseSurveyService<MultipleChoic
         survey.setAllowMultipleAnswers(surveyDTO.allowMultipleAnswers());
         survey.setOptions(surveyDTO.options());
 
-        return repository.save(survey);
+        MultipleChoiceSurvey saved = repository.save(survey);
+        surveyTallyService.rebuild(id);
+        return saved;
     }
 
+    @Transactional
     public MultipleChoiceSurvey patchSurvey(UUID id, PartialSurveyUpdateDTO surveyDTO, SocialProfile currentUser) {
         MultipleChoiceSurvey survey = getSurveyById(id);
         
@@ -107,27 +141,36 @@ public class MultipleChoiceSurveyService extends BaseSurveyService<MultipleChoic
         if (surveyDTO.allowMultipleAnswers() != null) {
             survey.setAllowMultipleAnswers(surveyDTO.allowMultipleAnswers());
         }
-        if (surveyDTO.options() != null && !surveyDTO.options().isEmpty()) {
+        boolean optionsChanged = surveyDTO.options() != null && !surveyDTO.options().isEmpty();
+        if (optionsChanged) {
             survey.setOptions(surveyDTO.options());
         }
 
-        return repository.save(survey);
+        MultipleChoiceSurvey saved = repository.save(survey);
+        if (optionsChanged) {
+            surveyTallyService.rebuild(id);
+        }
+        return saved;
     }
 
+    // Served from the materialized tallies: one indexed read per survey, whatever the number of responses
     public Map<String, Long> getResponseStatistics(UUID surveyId) {
+        getSurveyById(surveyId);
+        return surveyTallyService.getTallies(surveyId);
+    }
+
+    public SurveyWithStatsDTO getSurveyWithStats(UUID surveyId) {
         MultipleChoiceSurvey survey = getSurveyById(surveyId);
-        
-        // Create a map to store option counts
-        Map<String, Long> statistics = new HashMap<>();
-        
-        // Initialize all options with 0 count
+        List<OptionCountView> counts = responseRepository.countSelectedOptions(surveyId);
+        long totalResponses = counts.isEmpty() ? 0 : counts.get(0).getTotalRespondents();
+        return new SurveyWithStatsDTO(survey, toStatistics(survey, counts), totalResponses);
+    }
+
+    // Counts are aggregated in the database; options nobody picked are reported with 0
+    private Map<String, Long> toStatistics(MultipleChoiceSurvey survey, List<OptionCountView> counts) {
+        Map<String, Long> statistics = new LinkedHashMap<>();
         survey.getOptions().forEach(option -> statistics.put(option, 0L));
-        
-        // Count responses for each option
-        survey.getResponses().forEach(response -> 
-            response.getSelectedOptions().forEach(option -> 
-                statistics.merge(option, 1L, Long::sum)));
-        
+        counts.forEach(count -> statistics.put(count.getSelectedOption(), count.getSelections()));
         return statistics;
     }
 }
@@ -0,0 +1,31 @@
+package project_idea.idea.services;
+
+import project_idea.idea.entities.Post;
+import project_idea.idea.utils.SearchCursor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Backend for post search, selected with {@code search.engine}:
+ * "postgres" (default) queries the tsvector index, "memory" keeps an in-process inverted index.
+ * Engines that keep their own copy of the data are notified of entity writes by {@link SearchIndexListener}.
+ */
+public interface PostSearchEngine {
+    String FACET_TYPE = "type";
+    String FACET_LANGUAGE = "language";
+    String FACET_CATEGORY = "category";
+
+    // Returns post ids best match first; language is already validated and normalized, or null
+    SearchHits search(String text, String language, SearchCursor after, int size, boolean withFacets);
+
+    default void postSaved(Post post) {
+    }
+
+    default void postDeleted(UUID postId) {
+    }
+
+    // facets is null unless requested: facet name -> value -> number of matching posts
+    record SearchHits(List<UUID> ids, boolean hasNext, SearchCursor next, Map<String, Map<String, Long>> facets) {}
+}
@@ -1,29 +1,46 @@
 package project_idea.idea.services;
 
-import com.cloudinary.Cloudinary;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import project_idea.idea.entities.Post;
+import project_idea.idea.entities.UploadJob;
 import project_idea.idea.entities.User;
 import project_idea.idea.enums.PostType;
 import project_idea.idea.enums.SortDirection;
+import project_idea.idea.enums.UploadTarget;
 import project_idea.idea.enums.Visibility;
 import project_idea.idea.exceptions.BadRequestException;
 import project_idea.idea.exceptions.NotFoundException;
+import project_idea.idea.payloads.post.PostSearchResults;
+import project_idea.idea.payloads.post.PostSummary;
+import project_idea.idea.repositories.BaseSurveyRepository;
+import project_idea.idea.repositories.FundraiserRepository;
+import project_idea.idea.repositories.InquiryRepository;
 import project_idea.idea.repositories.PostRepository;
+import project_idea.idea.repositories.ProjectRepository;
+import project_idea.idea.services.BlobStore.StoredBlob;
+import project_idea.idea.services.UploadStagingService.StagedUpload;
+import project_idea.idea.services.PostSearchEngine.SearchHits;
+import project_idea.idea.utils.FeedCursor;
+import project_idea.idea.utils.LanguageUtils;
+import project_idea.idea.utils.SearchCursor;
 import java.io.IOException;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class PostService {
@@ -31,12 +48,39 @@ public class PostService {
     private PostRepository<Post> postRepository;
 
     @Autowired
-    private Cloudinary cloudinaryUploader;
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private InquiryRepository inquiryRepository;
+
+    @Autowired
+    private FundraiserRepository fundraiserRepository;
+
+    @Autowired
+    private BaseSurveyRepository baseSurveyRepository;
+
+    @Autowired
+    private FeedRankingService feedRankingService;
+
+    @Autowired
+    private FeedInboxService feedInboxService;
+
+    @Autowired
+    private PostSearchEngine postSearchEngine;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private UploadJobService uploadJobService;
+
+    @Autowired
+    private ImageVariantService imageVariantService;
 
     private static final long MAX_IMAGE_SIZE = 5 * 1024 * 1024; // 5MB
     private static final String[] ALLOWED_IMAGE_TYPES = {"image/jpeg", "image/png", "image/gif"};
 
-    public Page<Post> getAllPosts(int page, int size, String sortBy, SortDirection direction, String language, PostType type, User currentUser) {
+    public Slice<Post> getAllPosts(int page, int size, String sortBy, SortDirection direction, String language, PostType type, boolean withCount, User currentUser) {
         if (size > 100) size = 100;
         Sort.Direction sortDirection = direction == SortDirection.DESC ? Sort.Direction.DESC : Sort.Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
@@ -46,20 +90,33 @@ public class PostService {
 
         // Handle type and language filters
         if (type != null && language != null) {
-            return postRepository.findByTypeAndLanguageAndVisibilityNot(type, language.toLowerCase(), Visibility.DELETED, pageable);
+            return withCount
+                    ? repositoryFor(type).findByTypeAndLanguageAndVisibilityNot(type, language.toLowerCase(), Visibility.DELETED, pageable)
+                    : repositoryFor(type).findSliceByTypeAndLanguageAndVisibilityNot(type, language.toLowerCase(), Visibility.DELETED, pageable);
         } else if (type != null) {
-            return postRepository.findByTypeAndVisibilityNot(type, Visibility.DELETED, pageable);
+            return withCount
+                    ? repositoryFor(type).findByTypeAndVisibilityNot(type, Visibility.DELETED, pageable)
+                    : repositoryFor(type).findSliceByTypeAndVisibilityNot(type, Visibility.DELETED, pageable);
         } else if (language != null) {
-            return postRepository.findByLanguageAndVisibilityNot(language.toLowerCase(), Visibility.DELETED, pageable);
+            return withCount
+                    ? postRepository.findByLanguageAndVisibilityNot(language.toLowerCase(), Visibility.DELETED, pageable)
+                    : postRepository.findSliceByLanguageAndVisibilityNot(language.toLowerCase(), Visibility.DELETED, pageable);
         }
-        return postRepository.findByVisibilityNot(Visibility.DELETED, pageable);
+        return withCount
+                ? postRepository.findByVisibilityNot(Visibility.DELETED, pageable)
+                : postRepository.findSliceByVisibilityNot(Visibility.DELETED, pageable);
     }
 
-    public Page<Post> getMyPosts(User currentUser, int page, int size, String sortBy, SortDirection direction, PostType type) {
+    public Slice<Post> getMyPosts(User currentUser, int page, int size, String sortBy, SortDirection direction, PostType type, boolean withCount) {
         Sort.Direction sortDirection = direction == SortDirection.DESC ? Sort.Direction.DESC : Sort.Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
-        return type != null ? postRepository.findByAuthorProfileIdAndType(currentUser.getSocialProfile().getId(), type, pageable)
-                           : postRepository.findByAuthorProfileId(currentUser.getSocialProfile().getId(), pageable);
+        UUID profileId = currentUser.getSocialProfile().getId();
+        if (type != null) {
+            return withCount ? repositoryFor(type).findByAuthorProfileIdAndType(profileId, type, pageable)
+                             : repositoryFor(type).findSliceByAuthorProfileIdAndType(profileId, type, pageable);
+        }
+        return withCount ? postRepository.findByAuthorProfileId(profileId, pageable)
+                         : postRepository.findSliceByAuthorProfileId(profileId, pageable);
     }
 
     public Page<Post> getFeaturedPosts(int page, int size, String sortBy, SortDirection direction) {
@@ -69,13 +126,20 @@ public class PostService {
         return postRepository.findByFeaturedTrue(pageable);
     }
 
-    public Page<Post> getPostsBySocialProfile(UUID profileId, int page, int size, String sortBy, SortDirection direction, PostType type, User currentUser) {
+    public Slice<Post> getPostsBySocialProfile(UUID profileId, int page, int size, String sortBy, SortDirection direction, PostType type, boolean withCount, User currentUser) {
         if (size > 100) size = 100;
         Sort.Direction sortDirection = direction == SortDirection.DESC ? Sort.Direction.DESC : Sort.Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
-        return type != null ? postRepository.findByAuthorProfileIdAndType(profileId, type, pageable)
-                           : (currentUser != null ? postRepository.findByAuthorProfileId(profileId, pageable)
-                                                : postRepository.findByAuthorProfileIdAndFeaturedTrue(profileId, pageable));
+        if (type != null) {
+            return withCount ? repositoryFor(type).findByAuthorProfileIdAndType(profileId, type, pageable)
+                             : repositoryFor(type).findSliceByAuthorProfileIdAndType(profileId, type, pageable);
+        }
+        if (currentUser != null) {
+            return withCount ? postRepository.findByAuthorProfileId(profileId, pageable)
+                             : postRepository.findSliceByAuthorProfileId(profileId, pageable);
+        }
+        return withCount ? postRepository.findByAuthorProfileIdAndFeaturedTrue(profileId, pageable)
+                         : postRepository.findSliceByAuthorProfileIdAndFeaturedTrue(profileId, pageable);
     }
 
     public Post getPostById(UUID id) {
@@ -84,33 +148,47 @@ public class PostService {
     }
 
     public Post uploadFeaturedImage(UUID postId, MultipartFile file, String altText, User currentUser) {
+        validateFeaturedImageUpload(postId, file, currentUser);
+        return uploadJobService.uploadNow(file, MAX_IMAGE_SIZE, staged -> storeFeaturedImage(postId, staged, altText));
+    }
+
+    // Returns at once; the job reports when the post has its new image
+    public UploadJob uploadFeaturedImageAsync(UUID postId, MultipartFile file, String altText, User currentUser) {
+        validateFeaturedImageUpload(postId, file, currentUser);
+        return uploadJobService.submit(file, MAX_IMAGE_SIZE, UploadTarget.FEATURED_IMAGE, postId, currentUser,
+                staged -> storeFeaturedImage(postId, staged, altText), Post::getId);
+    }
+
+    private void validateFeaturedImageUpload(UUID postId, MultipartFile file, User currentUser) {
         Post post = getPostById(postId);
-        
+
         if (!post.getAuthorProfile().getUser().getId().equals(currentUser.getId())) {
             throw new BadRequestException("Only post author can update featured image");
         }
 
         validateImage(file);
+    }
 
-        try {
-            // Delete existing image if present
-            if (post.getFeaturedImagePublicId() != null) {
-                cloudinaryUploader.uploader().destroy(post.getFeaturedImagePublicId(), Map.of());
-            }
-
-            Map<String, String> options = new HashMap<>();
-            options.put("folder", "featured-images");
-
-            Map uploadResult = cloudinaryUploader.uploader().upload(file.getBytes(), options);
+    // The previous image and its variants are deleted only after the post points at the new one
+    private Post storeFeaturedImage(UUID postId, StagedUpload staged, String altText) throws IOException {
+        StoredBlob blob = blobStore.upload(staged.path(), "featured-images", "image");
 
-            post.setFeaturedImageUrl((String) uploadResult.get("url"));
-            post.setFeaturedImagePublicId((String) uploadResult.get("public_id"));
-            post.setFeaturedImageAlt(altText);
+        Post post = getPostById(postId);
+        List<String> previousPublicIds = Stream.of(post.getFeaturedImagePublicId(),
+                        post.getFeaturedImageThumbnailPublicId(), post.getFeaturedImageWebPublicId())
+                .filter(Objects::nonNull).collect(Collectors.toList());
+        post.setFeaturedImageUrl(blob.url());
+        post.setFeaturedImagePublicId(blob.publicId());
+        post.setFeaturedImageAlt(altText);
+        post.setFeaturedImageThumbnailUrl(null);
+        post.setFeaturedImageThumbnailPublicId(null);
+        post.setFeaturedImageWebUrl(null);
+        post.setFeaturedImageWebPublicId(null);
+        Post saved = postRepository.save(post);
 
-            return postRepository.save(post);
-        } catch (IOException e) {
-            throw new BadRequestException("Failed to upload image: " + e.getMessage());
-        }
+        previousPublicIds.forEach(uploadJobService::deleteLater);
+        imageVariantService.featuredImageStored(postId, blob, staged.path());
+        return saved;
     }
 
     private void validateImage(MultipartFile file) {
@@ -128,27 +206,126 @@ public class PostService {
         }
     }
 
-    public Page<Post> getSuggestedPosts(User currentUser, int page, int size, String sortBy, SortDirection direction) {
+    // Suggested posts are ordered by relevance (see FeedRankingService), so there is no sort field
+    public Slice<Post> getSuggestedPosts(User currentUser, int page, int size, boolean withCount) {
+        if (size > 100) size = 100;
+        Pageable pageable = PageRequest.of(page, size);
+        List<UUID> ids = feedRankingService.getSuggestedIds(currentUser, pageable.getOffset(), size + 1);
+        List<Post> content = loadInOrder(ids.subList(0, Math.min(size, ids.size())));
+        return withCount ? new PageImpl<>(content, pageable, feedRankingService.countSuggested(currentUser))
+                         : new SliceImpl<>(content, pageable, ids.size() > size);
+    }
+
+    public Page<PostSummary> getAllPostSummaries(int page, int size, String sortBy, SortDirection direction, String language, PostType type) {
         if (size > 100) size = 100;
         Sort.Direction sortDirection = direction == SortDirection.DESC ? Sort.Direction.DESC : Sort.Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
-        
-        // Get posts based on user type
-        switch (currentUser.getUserType()) {
-            case PROFESSIONAL:
-                return postRepository.findByTypeAndVisibility(
-                    PostType.INQUIRY, Visibility.ACTIVE, pageable);
-                
-            case INVESTOR:
-                return postRepository.findByTypeInAndVisibility(
-                    List.of(PostType.FUNDRAISER, PostType.PROJECT), 
-                    Visibility.ACTIVE,
-                    pageable);
-                
-            case CREATOR:
-            default:
-                return postRepository.findByCategoriesInAndVisibility(
-                    currentUser.getInterests(), Visibility.ACTIVE, pageable);
+        return postRepository.findSummaries(Visibility.DELETED, type, language != null ? language.toLowerCase() : null, pageable);
+    }
+
+    public Page<PostSummary> getSuggestedPostSummaries(User currentUser, int page, int size) {
+        if (size > 100) size = 100;
+        Pageable pageable = PageRequest.of(page, size);
+        List<UUID> ids = feedRankingService.getSuggestedIds(currentUser, pageable.getOffset(), size);
+
+        Map<UUID, PostSummary> byId = postRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(PostSummary::id, Function.identity()));
+        List<PostSummary> content = ids.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, feedRankingService.countSuggested(currentUser));
+    }
+
+    public Slice<Post> getAllPostsAfter(String cursor, int size, String sortBy, SortDirection direction, String language, PostType type) {
+        if (size > 100) size = 100;
+        validateCursorSort(sortBy, direction);
+        FeedCursor after = FeedCursor.decode(cursor);
+        List<Post> rows = repositoryFor(type).findFeedPage(Visibility.DELETED, type,
+                language != null ? language.toLowerCase() : null,
+                after != null ? after.createdAt() : null, after != null ? after.id() : null,
+                PageRequest.of(0, size + 1));
+        return toSlice(rows, size);
+    }
+
+    public Slice<Post> getPostsBySocialProfileAfter(UUID profileId, String cursor, int size, String sortBy, SortDirection direction, PostType type, User currentUser) {
+        if (size > 100) size = 100;
+        validateCursorSort(sortBy, direction);
+        FeedCursor after = FeedCursor.decode(cursor);
+        // Same rules as the offset feed: anonymous visitors only see featured posts unless filtering by type
+        boolean featuredOnly = type == null && currentUser == null;
+        List<Post> rows = repositoryFor(type).findProfileFeedPage(profileId, type, featuredOnly,
+                after != null ? after.createdAt() : null, after != null ? after.id() : null,
+                PageRequest.of(0, size + 1));
+        return toSlice(rows, size);
+    }
+
+    // Suggested feeds are served from the fan-out inbox when it is enabled, and only by cursor
+    public boolean isSuggestedInboxEnabled() {
+        return feedInboxService.isEnabled();
+    }
+
+    // Past the ranked posts the feed continues by recency, see FeedRankingService#getSuggestedIdsAfter
+    public Slice<Post> getSuggestedPostsAfter(User currentUser, String cursor, int size) {
+        if (size > 100) size = 100;
+        FeedCursor after = FeedCursor.decode(cursor);
+        if (feedInboxService.isEnabled()) {
+            return feedInboxService.getInboxPage(currentUser, after, size);
         }
+        List<UUID> ids = feedRankingService.getSuggestedIdsAfter(currentUser, after, size + 1);
+        List<Post> content = loadInOrder(ids.subList(0, Math.min(size, ids.size())));
+        return new SliceImpl<>(content, PageRequest.of(0, size), ids.size() > size);
+    }
+
+    // Searches title and description with the configured PostSearchEngine
+    public PostSearchResults searchPosts(String query, String language, String cursor, int size, boolean withFacets) {
+        if (size > 100) size = 100;
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query must not be empty");
+        }
+        if (language != null && !LanguageUtils.isValidLanguageCode(language)) {
+            throw new BadRequestException("Invalid language code: " + language);
+        }
+        SearchHits hits = postSearchEngine.search(query.trim(), language != null ? language.toLowerCase() : null,
+                SearchCursor.decode(cursor), size, withFacets);
+
+        Map<UUID, Post> byId = postRepository.findByIdIn(hits.ids()).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+        List<Post> posts = hits.ids().stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+        return new PostSearchResults(posts, hits.hasNext(), hits.next() != null ? hits.next().encode() : null, hits.facets());
+    }
+
+    // Posts deleted since the ranking was computed are simply skipped
+    private List<Post> loadInOrder(List<UUID> ids) {
+        Map<UUID, Post> byId = postRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    // With a single type, querying the subtype repository joins posts with that one subtype table
+    // instead of outer-joining every table of the JOINED hierarchy. Only used for reads, so exposing
+    // the subtype repository as PostRepository<Post> is safe.
+    @SuppressWarnings("unchecked")
+    private PostRepository<Post> repositoryFor(PostType type) {
+        if (type == null) {
+            return postRepository;
+        }
+        PostRepository<? extends Post> repository = switch (type) {
+            case PROJECT -> projectRepository;
+            case INQUIRY -> inquiryRepository;
+            case FUNDRAISER -> fundraiserRepository;
+            case SURVEY -> baseSurveyRepository;
+        };
+        return (PostRepository<Post>) repository;
+    }
+
+    // Cursors seek on (createdAt, id), so only the default newest-first ordering can be continued
+    private void validateCursorSort(String sortBy, SortDirection direction) {
+        if (!"createdAt".equals(sortBy) || direction != SortDirection.DESC) {
+            throw new BadRequestException("Cursor pagination only supports sortBy=createdAt with direction=DESC");
+        }
+    }
+
+    private Slice<Post> toSlice(List<Post> rows, int size) {
+        boolean hasNext = rows.size() > size;
+        List<Post> content = hasNext ? rows.subList(0, size) : rows;
+        return new SliceImpl<>(content, PageRequest.of(0, size), hasNext);
     }
 }
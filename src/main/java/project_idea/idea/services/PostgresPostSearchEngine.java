@@ -0,0 +1,59 @@
+package project_idea.idea.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import project_idea.idea.entities.Post;
+import project_idea.idea.repositories.PostRepository;
+import project_idea.idea.repositories.PostRepository.SearchFacetRow;
+import project_idea.idea.repositories.PostRepository.SearchHit;
+import project_idea.idea.utils.LanguageUtils;
+import project_idea.idea.utils.SearchCursor;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Reads straight from the database (see PostSearchIndexInitializer), so there is nothing to keep in sync
+@Service
+@ConditionalOnProperty(name = "search.engine", havingValue = "postgres", matchIfMissing = true)
+public class PostgresPostSearchEngine implements PostSearchEngine {
+    @Autowired
+    private PostRepository<Post> postRepository;
+
+    // With a language the query is stemmed like that language's posts; without one it matches whole words
+    @Override
+    public SearchHits search(String text, String language, SearchCursor after, int size, boolean withFacets) {
+        String config = language != null ? LanguageUtils.getTextSearchConfig(language) : LanguageUtils.DEFAULT_TEXT_SEARCH_CONFIG;
+        List<SearchHit> hits = postRepository.searchPage(config, text, language,
+                after != null ? after.rank() : null, after != null ? after.id() : null, size + 1);
+        boolean hasNext = hits.size() > size;
+        List<SearchHit> pageHits = hasNext ? hits.subList(0, size) : hits;
+
+        SearchCursor next = null;
+        if (hasNext) {
+            SearchHit last = pageHits.get(pageHits.size() - 1);
+            next = new SearchCursor(last.getRank(), last.getId());
+        }
+        return new SearchHits(pageHits.stream().map(SearchHit::getId).collect(Collectors.toList()), hasNext, next,
+                withFacets ? facets(config, text, language) : null);
+    }
+
+    private Map<String, Map<String, Long>> facets(String config, String text, String language) {
+        Map<String, Map<String, Long>> facets = new HashMap<>();
+        facets.put(FACET_TYPE, new HashMap<>());
+        facets.put(FACET_LANGUAGE, new HashMap<>());
+        facets.put(FACET_CATEGORY, new HashMap<>());
+        for (SearchFacetRow row : postRepository.searchFacets(config, text, language)) {
+            if (row.getType() != null) {
+                facets.get(FACET_TYPE).put(row.getType(), row.getHits());
+            } else if (row.getLanguage() != null) {
+                facets.get(FACET_LANGUAGE).put(row.getLanguage(), row.getHits());
+            } else if (row.getCategoryId() != null) {
+                facets.get(FACET_CATEGORY).put(row.getCategoryId(), row.getHits());
+            }
+        }
+        return facets;
+    }
+}
@@ -43,6 +43,9 @@ public class ProjectService {
     @Autowired
     private ThreadService threadService;
 
+    @Autowired
+    private FeedInboxService feedInboxService;
+
     public Project createProject(NewProjectDTO projectDTO, User author) {
         Project project = new Project();
         project.setTitle(projectDTO.title());
@@ -89,7 +92,9 @@ public class ProjectService {
             project.getRoadmapSteps().addAll(steps);
         }
 
-        return projectRepository.save(project);
+        Project saved = projectRepository.save(project);
+        feedInboxService.onPostCreated(saved);
+        return saved;
     }
 
     private RoadmapStep createRoadmapStep(RoadmapStepDTO stepDTO, Project project) {
@@ -0,0 +1,40 @@
+package project_idea.idea.services;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import project_idea.idea.entities.Post;
+import project_idea.idea.entities.SocialProfile;
+
+// JPA listener on Post and SocialProfile; Hibernate obtains it from Spring, so the indexes can be injected.
+// They are looked up lazily because listeners are created while the EntityManagerFactory is being built.
+@Component
+public class SearchIndexListener {
+    @Autowired
+    private ObjectProvider<PostSearchEngine> searchEngine;
+
+    @Autowired
+    private ObjectProvider<UsernameIndex> usernameIndex;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        if (entity instanceof Post post) {
+            searchEngine.ifAvailable(engine -> engine.postSaved(post));
+        } else if (entity instanceof SocialProfile profile) {
+            usernameIndex.ifAvailable(index -> index.profileSaved(profile.getId(), profile.getUsername()));
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        if (entity instanceof Post post) {
+            searchEngine.ifAvailable(engine -> engine.postDeleted(post.getId()));
+        } else if (entity instanceof SocialProfile profile) {
+            usernameIndex.ifAvailable(index -> index.profileDeleted(profile.getId()));
+        }
+    }
+}
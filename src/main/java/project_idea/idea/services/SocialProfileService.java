@@ -1,6 +1,5 @@
 package project_idea.idea.services;
 
-import com.cloudinary.Cloudinary;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.Page;
@@ -10,18 +9,28 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import project_idea.idea.entities.SocialProfile;
+import project_idea.idea.entities.UploadJob;
 import project_idea.idea.entities.User;
+import project_idea.idea.enums.UploadTarget;
 import project_idea.idea.exceptions.BadRequestException;
 import project_idea.idea.exceptions.NotFoundException;
 import project_idea.idea.repositories.SocialProfileRepository;
 import project_idea.idea.repositories.UsersRepository;
 import project_idea.idea.payloads.socialProfile.PartialSocialProfileUpdateDTO;
 import project_idea.idea.payloads.socialProfile.SocialProfileUpdateDTO;
+import project_idea.idea.payloads.socialProfile.ProfileSummary;
+import project_idea.idea.security.PrincipalCache;
+import project_idea.idea.services.UploadStagingService.StagedUpload;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class SocialProfileService {
@@ -33,7 +42,21 @@ public class SocialProfileService {
     private UsersRepository usersRepository;
 
     @Autowired
-    private Cloudinary cloudinaryUploader;
+    private BlobStore blobStore;
+
+    @Autowired
+    private UploadJobService uploadJobService;
+
+    @Autowired
+    private ImageVariantService imageVariantService;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private UsernameIndex usernameIndex;
+
+    private static final long MAX_AVATAR_SIZE = 5 * 1024 * 1024; // 5MB
 
     @JsonIgnore
     @Transactional(readOnly = true)
@@ -54,6 +77,24 @@ public class SocialProfileService {
         return socialProfileRepository.findAll(pageable);
     }
 
+    public Page<ProfileSummary> getProfileSummaries(int page, int size, String sortBy) {
+        if (size > 100) size = 100;
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy));
+        return socialProfileRepository.findSummaries(pageable);
+    }
+
+    // Username prefix lookup for @mentions, in username order
+    public List<ProfileSummary> suggestProfiles(String prefix, int limit) {
+        if (limit > 20) limit = 20;
+        if (prefix == null || prefix.isBlank()) {
+            throw new BadRequestException("Prefix must not be empty");
+        }
+        List<UUID> ids = usernameIndex.suggest(prefix.trim(), limit);
+        Map<UUID, ProfileSummary> byId = socialProfileRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(ProfileSummary::id, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
     public SocialProfile updateSocialProfile(UUID userId, SocialProfileUpdateDTO updatedProfile) {
         User user = usersRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found"));
@@ -83,7 +124,9 @@ public class SocialProfileService {
         existingProfile.setLinks(updatedProfile.links() != null ? 
             updatedProfile.links() : new HashMap<>());
 
-        return socialProfileRepository.save(existingProfile);
+        SocialProfile saved = socialProfileRepository.save(existingProfile);
+        principalCache.evict(userId);
+        return saved;
     }
 
     public SocialProfile patchSocialProfile(UUID userId, PartialSocialProfileUpdateDTO updatedProfile) {
@@ -119,10 +162,25 @@ public class SocialProfileService {
             existingProfile.setLinks(currentLinks);
         }
 
-        return socialProfileRepository.save(existingProfile);
+        SocialProfile saved = socialProfileRepository.save(existingProfile);
+        principalCache.evict(userId);
+        return saved;
     }
 
     public SocialProfile uploadAvatar(UUID userId, MultipartFile file) {
+        validateAvatar(file);
+        return uploadJobService.uploadNow(file, MAX_AVATAR_SIZE, staged -> storeAvatar(userId, staged));
+    }
+
+    // Returns at once; the job reports when the profile has its new avatar
+    public UploadJob uploadAvatarAsync(User currentUser, MultipartFile file) {
+        validateAvatar(file);
+        UUID userId = currentUser.getId();
+        return uploadJobService.submit(file, MAX_AVATAR_SIZE, UploadTarget.AVATAR, currentUser.getSocialProfile().getId(), currentUser,
+                staged -> storeAvatar(userId, staged), SocialProfile::getId);
+    }
+
+    private void validateAvatar(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             throw new BadRequestException("No file was uploaded");
         }
@@ -133,27 +191,29 @@ public class SocialProfileService {
             throw new BadRequestException("Only image files are allowed");
         }
 
-        // Validate file size (max 5MB)
-        if (file.getSize() > 5 * 1024 * 1024) {
+        // Validate file size
+        if (file.getSize() > MAX_AVATAR_SIZE) {
             throw new BadRequestException("File size must not exceed 5MB");
         }
+    }
 
-        String url = null;
-        try {
-            Map<String, String> options = new HashMap<>();
-            options.put("resource_type", "image");
-            options.put("folder", "avatars");
-            url = (String) cloudinaryUploader.uploader()
-                .upload(file.getBytes(), options)
-                .get("url");
-        } catch (IOException e) {
-            throw new BadRequestException("There were problems while uploading your file");
-        }
+    private SocialProfile storeAvatar(UUID userId, StagedUpload staged) throws IOException {
+        String url = blobStore.upload(staged.path(), "avatars", "image").url();
         SocialProfile found = this.getSocialProfileByUserId(userId);
+        List<String> previousVariantIds = Stream.of(found.getAvatarThumbnailPublicId(), found.getAvatarWebPublicId())
+                .filter(Objects::nonNull).collect(Collectors.toList());
         found.setAvatarURL(url);
         found.setHasCustomAvatar(true);
-
-        return this.socialProfileRepository.save(found);
+        found.setAvatarThumbnailURL(null);
+        found.setAvatarThumbnailPublicId(null);
+        found.setAvatarWebURL(null);
+        found.setAvatarWebPublicId(null);
+
+        SocialProfile saved = this.socialProfileRepository.save(found);
+        principalCache.evict(userId);
+        previousVariantIds.forEach(uploadJobService::deleteLater);
+        imageVariantService.avatarStored(saved.getId(), userId, url, staged.path());
+        return saved;
     }
 
     public SocialProfile findById(UUID id) {
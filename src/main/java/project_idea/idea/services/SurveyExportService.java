@@ -0,0 +1,165 @@
+package project_idea.idea.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import project_idea.idea.entities.BaseSurvey;
+import project_idea.idea.entities.User;
+import project_idea.idea.enums.ExportFormat;
+import project_idea.idea.exceptions.BadRequestException;
+import project_idea.idea.payloads.survey.MultipleChoiceSelectionExportRow;
+import project_idea.idea.payloads.survey.OpenEndedResponseExportRow;
+import project_idea.idea.repositories.MultipleChoiceResponseRepository;
+import project_idea.idea.repositories.OpenEndedResponseRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Writes survey responses straight from a database cursor to the HTTP response,
+ * so memory use stays flat no matter how many responses a survey has.
+ */
+@Service
+public class SurveyExportService {
+    @Autowired
+    private OpenEndedResponseRepository openEndedResponseRepository;
+
+    @Autowired
+    private MultipleChoiceResponseRepository multipleChoiceResponseRepository;
+
+    @Autowired
+    private OpenEndedSurveyService openEndedSurveyService;
+
+    @Autowired
+    private MultipleChoiceSurveyService multipleChoiceSurveyService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Checked before streaming starts, while errors can still be returned as a normal response
+    public void validateOpenEndedExportAccess(UUID surveyId, User currentUser) {
+        validateExportAccess(openEndedSurveyService.getSurveyById(surveyId), currentUser);
+    }
+
+    public void validateMultipleChoiceExportAccess(UUID surveyId, User currentUser) {
+        validateExportAccess(multipleChoiceSurveyService.getSurveyById(surveyId), currentUser);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportOpenEndedResponses(UUID surveyId, ExportFormat format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write("responseId,profileId,username,response\n");
+        }
+
+        try (Stream<OpenEndedResponseExportRow> rows = openEndedResponseRepository.streamExportRows(surveyId)) {
+            rows.forEach(row -> writeLine(writer, format == ExportFormat.CSV
+                    ? csvLine(row.responseId(), row.profileId(), row.username(), row.response())
+                    : toJson(row)));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    @Transactional(readOnly = true)
+    public void exportMultipleChoiceResponses(UUID surveyId, ExportFormat format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write("responseId,profileId,username,selectedOptions\n");
+        }
+
+        try (Stream<MultipleChoiceSelectionExportRow> rows = multipleChoiceResponseRepository.streamExportRows(surveyId)) {
+            // Rows arrive ordered by response, so only the response being assembled is held in memory
+            Iterator<MultipleChoiceSelectionExportRow> iterator = rows.iterator();
+            MultipleChoiceSelectionExportRow current = null;
+            List<String> selectedOptions = new ArrayList<>();
+            while (iterator.hasNext()) {
+                MultipleChoiceSelectionExportRow row = iterator.next();
+                if (current != null && !current.responseId().equals(row.responseId())) {
+                    writeMultipleChoiceResponse(writer, format, current, selectedOptions);
+                    selectedOptions.clear();
+                }
+                current = row;
+                if (row.selectedOption() != null) {
+                    selectedOptions.add(row.selectedOption());
+                }
+            }
+            if (current != null) {
+                writeMultipleChoiceResponse(writer, format, current, selectedOptions);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private void validateExportAccess(BaseSurvey survey, User currentUser) {
+        boolean isAdmin = currentUser.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ADMIN"));
+        if (!isAdmin && !survey.getAuthorProfile().getUser().getId().equals(currentUser.getId())) {
+            throw new BadRequestException("You can only export responses to your own surveys");
+        }
+    }
+
+    private void writeMultipleChoiceResponse(Writer writer, ExportFormat format,
+                                             MultipleChoiceSelectionExportRow row, List<String> selectedOptions) {
+        if (format == ExportFormat.CSV) {
+            writeLine(writer, csvLine(row.responseId(), row.profileId(), row.username(), String.join("; ", selectedOptions)));
+            return;
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("responseId", row.responseId());
+        json.put("profileId", row.profileId());
+        json.put("username", row.username());
+        json.put("selectedOptions", selectedOptions);
+        writeLine(writer, toJson(json));
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeLine(Writer writer, String line) {
+        try {
+            writer.write(line);
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String csvLine(Object... values) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) line.append(',');
+            line.append(csvField(values[i]));
+        }
+        return line.toString();
+    }
+
+    private String csvField(Object value) {
+        if (value == null) return "";
+        String text = value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+}
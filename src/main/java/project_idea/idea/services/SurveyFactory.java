@@ -4,12 +4,18 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
 import project_idea.idea.entities.BaseSurvey;
 import project_idea.idea.entities.OpenEndedSurvey;
 import project_idea.idea.entities.MultipleChoiceSurvey;
+import project_idea.idea.exceptions.BadRequestException;
 import project_idea.idea.payloads.survey.NewSurveyDTO;
+import project_idea.idea.repositories.BaseSurveyRepository;
+import project_idea.idea.utils.FeedCursor;
+import project_idea.idea.utils.LanguageUtils;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -19,11 +25,14 @@ import project_idea.idea.exceptions.NotFoundException;
 public class SurveyFactory {
     private final OpenEndedSurveyService openEndedSurveyService;
     private final MultipleChoiceSurveyService multipleChoiceSurveyService;
+    private final BaseSurveyRepository baseSurveyRepository;
 
     public SurveyFactory(OpenEndedSurveyService openEndedSurveyService, 
-                        MultipleChoiceSurveyService multipleChoiceSurveyService) {
+                        MultipleChoiceSurveyService multipleChoiceSurveyService,
+                        BaseSurveyRepository baseSurveyRepository) {
         this.openEndedSurveyService = openEndedSurveyService;
         this.multipleChoiceSurveyService = multipleChoiceSurveyService;
+        this.baseSurveyRepository = baseSurveyRepository;
     }
 
     public BaseSurveyService<?> getServiceForSurvey(NewSurveyDTO surveyDTO) {
@@ -47,14 +56,17 @@ public class SurveyFactory {
                 return convertToBaseSurveyPage(multipleChoiceSurveyService.getAllSurveys(page, size, sortBy, isAdmin));
             case "ALL":
             default:
-                Page<OpenEndedSurvey> openEndedPage = openEndedSurveyService.getAllSurveys(page, size, sortBy, isAdmin);
-                Page<MultipleChoiceSurvey> multipleChoicePage = multipleChoiceSurveyService.getAllSurveys(page, size, sortBy, isAdmin);
-                return combineSurveyPages(openEndedPage, multipleChoicePage);
+                // Both survey kinds live in the same table, so one query pages and sorts them together
+                if (size > 100) size = 100;
+                Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy));
+                return isAdmin ? baseSurveyRepository.findAll(pageable)
+                               : baseSurveyRepository.findByFeaturedTrue(pageable);
         }
     }
 
     public Page<BaseSurvey> getAllSurveysByLanguage(String surveyType, String language, int page, int size, 
                                                    String sortBy, boolean isAdmin) {
+        validateLanguage(language);
         switch (surveyType.toUpperCase()) {
             case "OPEN_ENDED":
                 return convertToBaseSurveyPage(
@@ -64,30 +76,41 @@ public class SurveyFactory {
                     multipleChoiceSurveyService.getAllSurveysByLanguage(language, page, size, sortBy, isAdmin));
             case "ALL":
             default:
-                Page<OpenEndedSurvey> openEndedPage = 
-                    openEndedSurveyService.getAllSurveysByLanguage(language, page, size, sortBy, isAdmin);
-                Page<MultipleChoiceSurvey> multipleChoicePage = 
-                    multipleChoiceSurveyService.getAllSurveysByLanguage(language, page, size, sortBy, isAdmin);
-                return combineSurveyPages(openEndedPage, multipleChoicePage);
+                if (size > 100) size = 100;
+                Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy));
+                return isAdmin ? baseSurveyRepository.findByLanguage(language.toLowerCase(), pageable)
+                               : baseSurveyRepository.findByLanguageAndFeaturedTrue(language.toLowerCase(), pageable);
         }
     }
 
-    private Page<BaseSurvey> combineSurveyPages(Page<OpenEndedSurvey> openEndedPage, Page<MultipleChoiceSurvey> multipleChoicePage) {
-        List<BaseSurvey> combinedContent = new ArrayList<>();
-        combinedContent.addAll(openEndedPage.getContent());
-        combinedContent.addAll(multipleChoicePage.getContent());
+    // Keyset variant of getAllSurveys/getAllSurveysByLanguage: newest first, no offset and no count query
+    public Slice<BaseSurvey> getAllSurveysAfter(String surveyType, String language, String cursor, int size, boolean isAdmin) {
+        if (size > 100) size = 100;
+        if (language != null) {
+            validateLanguage(language);
+        }
 
-        int totalElements = (int) (openEndedPage.getTotalElements() + multipleChoicePage.getTotalElements());
-        int pageSize = openEndedPage.getSize();
-        int pageNumber = openEndedPage.getNumber();
+        List<Class<? extends BaseSurvey>> surveyTypes = switch (surveyType.toUpperCase()) {
+            case "OPEN_ENDED" -> List.of(OpenEndedSurvey.class);
+            case "MULTIPLECHOICE" -> List.of(MultipleChoiceSurvey.class);
+            default -> List.of(OpenEndedSurvey.class, MultipleChoiceSurvey.class);
+        };
 
-        combinedContent.sort((s1, s2) -> s2.getCreatedAt().compareTo(s1.getCreatedAt()));
+        FeedCursor after = FeedCursor.decode(cursor);
+        List<BaseSurvey> rows = baseSurveyRepository.findSurveyFeedPage(surveyTypes, !isAdmin,
+                language != null ? language.toLowerCase() : null,
+                after != null ? after.createdAt() : null, after != null ? after.id() : null,
+                PageRequest.of(0, size + 1));
 
-        int start = pageNumber * pageSize;
-        int end = Math.min(start + pageSize, combinedContent.size());
-        List<BaseSurvey> pageContent = combinedContent.subList(start, end);
+        boolean hasNext = rows.size() > size;
+        return new SliceImpl<>(hasNext ? rows.subList(0, size) : rows, PageRequest.of(0, size), hasNext);
+    }
 
-        return new PageImpl<>(pageContent, openEndedPage.getPageable(), totalElements);
+    // Checked here for every survey type, so offset and cursor feeds both answer 400
+    private void validateLanguage(String language) {
+        if (!LanguageUtils.isValidLanguageCode(language)) {
+            throw new BadRequestException("Invalid language code: " + language);
+        }
     }
 
     private <T extends BaseSurvey> Page<BaseSurvey> convertToBaseSurveyPage(Page<T> page) {
@@ -101,10 +124,7 @@ public class SurveyFactory {
 
     public Page<BaseSurvey> getFeaturedSurveys(int page, int size, String sortBy) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy));
-        Page<OpenEndedSurvey> openEndedFeatured = openEndedSurveyService.repository.findByFeaturedTrue(pageable);
-        Page<MultipleChoiceSurvey> multipleChoiceFeatured = multipleChoiceSurveyService.repository.findByFeaturedTrue(pageable);
-        
-        return combineSurveyPages(openEndedFeatured, multipleChoiceFeatured);
+        return baseSurveyRepository.findByFeaturedTrue(pageable);
     }
 
     private <T extends BaseSurvey> Page<T> getFeaturedSurveys(BaseSurveyService<T> service, int page, int size, String sortBy) {
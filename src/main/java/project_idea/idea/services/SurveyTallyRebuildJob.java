@@ -0,0 +1,37 @@
+package project_idea.idea.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import project_idea.idea.repositories.MultipleChoiceSurveyRepository;
+
+import java.util.UUID;
+
+// Periodically recomputes survey tallies from the stored responses to repair any drift
+@Component
+public class SurveyTallyRebuildJob {
+    private static final Logger logger = LoggerFactory.getLogger(SurveyTallyRebuildJob.class);
+
+    @Autowired
+    private SurveyTallyService surveyTallyService;
+
+    @Autowired
+    private MultipleChoiceSurveyRepository surveyRepository;
+
+    @Scheduled(cron = "${surveys.tally-rebuild.cron:0 30 3 * * *}")
+    public void rebuildAll() {
+        int rebuilt = 0;
+        // One transaction per survey keeps row locks short
+        for (UUID surveyId : surveyRepository.findAllIds()) {
+            try {
+                surveyTallyService.rebuild(surveyId);
+                rebuilt++;
+            } catch (RuntimeException e) {
+                logger.error("Failed to rebuild tallies for survey {}: {}", surveyId, e.getMessage());
+            }
+        }
+        logger.info("Rebuilt tallies for {} multiple choice surveys", rebuilt);
+    }
+}
@@ -0,0 +1,81 @@
+package project_idea.idea.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import project_idea.idea.entities.MultipleChoiceSurvey;
+import project_idea.idea.entities.SurveyOptionTally;
+import project_idea.idea.exceptions.NotFoundException;
+import project_idea.idea.repositories.MultipleChoiceSurveyRepository;
+import project_idea.idea.repositories.SurveyOptionTallyRepository;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class SurveyTallyService {
+    @Autowired
+    private SurveyOptionTallyRepository tallyRepository;
+
+    @Autowired
+    private MultipleChoiceSurveyRepository surveyRepository;
+
+    // Called inside the response transaction, so the tally commits or rolls back with the response
+    public void recordSelections(UUID surveyId, List<String> selectedOptions) {
+        applyDelta(surveyId, selectedOptions, 1);
+    }
+
+    public void removeSelections(UUID surveyId, List<String> selectedOptions) {
+        applyDelta(surveyId, selectedOptions, -1);
+    }
+
+    // Surveys created before tallies existed are materialized at startup by SurveyTallyInitializer
+    @Transactional(readOnly = true)
+    public Map<String, Long> getTallies(UUID surveyId) {
+        List<SurveyOptionTally> tallies = tallyRepository.findBySurveyIdOrderByPositionAsc(surveyId);
+
+        Map<String, Long> statistics = new LinkedHashMap<>();
+        tallies.forEach(tally -> statistics.put(tally.getOptionValue(), tally.getSelections()));
+        return statistics;
+    }
+
+    // Aligns the tally rows with the survey's current options and recounts them from the responses
+    @Transactional
+    public void rebuild(UUID surveyId) {
+        MultipleChoiceSurvey survey = surveyRepository.findById(surveyId)
+                .orElseThrow(() -> new NotFoundException(surveyId));
+
+        Map<String, SurveyOptionTally> existing = tallyRepository.findBySurveyIdOrderByPositionAsc(surveyId).stream()
+                .collect(Collectors.toMap(SurveyOptionTally::getOptionValue, Function.identity()));
+
+        List<String> options = List.copyOf(new LinkedHashSet<>(survey.getOptions()));
+        for (int position = 0; position < options.size(); position++) {
+            SurveyOptionTally tally = existing.remove(options.get(position));
+            if (tally == null) {
+                tally = new SurveyOptionTally(surveyId, options.get(position), position);
+            }
+            tally.setPosition(position);
+            tallyRepository.save(tally);
+        }
+        tallyRepository.deleteAll(existing.values());
+        tallyRepository.flush();
+
+        tallyRepository.recount(surveyId);
+    }
+
+    public void deleteTallies(UUID surveyId) {
+        tallyRepository.deleteBySurveyId(surveyId);
+    }
+
+    private void applyDelta(UUID surveyId, List<String> selectedOptions, long sign) {
+        // An option listed twice in one response counts twice, matching the aggregated statistics
+        Map<String, Long> occurrences = selectedOptions.stream()
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        occurrences.forEach((option, count) -> tallyRepository.addSelections(surveyId, option, sign * count));
+    }
+}
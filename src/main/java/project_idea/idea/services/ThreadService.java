@@ -14,6 +14,7 @@ import project_idea.idea.entities.User;
 import project_idea.idea.enums.PostType;
 import project_idea.idea.exceptions.BadRequestException;
 import project_idea.idea.exceptions.NotFoundException;
+import project_idea.idea.payloads.thread.ThreadSummary;
 import project_idea.idea.repositories.ThreadRepository;
 import project_idea.idea.repositories.PostRepository;
 
@@ -81,6 +82,12 @@ public class ThreadService {
         return threadRepository.findAll(pageable);
     }
 
+    public Page<ThreadSummary> getThreadSummaries(int page, int size, String sortBy) {
+        if (size > 100) size = 100;
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy));
+        return threadRepository.findSummaries(pageable);
+    }
+
     public Thread getThreadById(UUID id) {
         return threadRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Thread not found"));
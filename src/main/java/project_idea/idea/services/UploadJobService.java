@@ -0,0 +1,139 @@
+package project_idea.idea.services;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import project_idea.idea.entities.UploadJob;
+import project_idea.idea.entities.User;
+import project_idea.idea.enums.UploadStatus;
+import project_idea.idea.enums.UploadTarget;
+import project_idea.idea.exceptions.BadRequestException;
+import project_idea.idea.exceptions.NotFoundException;
+import project_idea.idea.repositories.UploadJobRepository;
+import project_idea.idea.services.UploadStagingService.StagedUpload;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Runs uploads from a staged temp file, either on the request thread or as a background job
+ * tracked in upload_jobs. The multipart body is staged before the request ends because the
+ * container deletes its own copy afterwards; see UploadStagingService for the checks done on the way.
+ */
+@Service
+public class UploadJobService {
+    private static final Logger logger = LoggerFactory.getLogger(UploadJobService.class);
+
+    @Autowired
+    private UploadJobRepository uploadJobRepository;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private UploadStagingService uploadStagingService;
+
+    private final ThreadPoolExecutor uploadExecutor;
+
+    public UploadJobService(@Value("${uploads.workers:4}") int workers,
+                            @Value("${uploads.queue-capacity:100}") int queueCapacity) {
+        // When the queue is full the request runs the upload itself, which slows uploaders down instead of failing them
+        this.uploadExecutor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("upload-", 0).daemon().factory(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    // Work receives the staged upload and hands its path to the BlobStore, which reads it from disk
+    @FunctionalInterface
+    public interface UploadWork<T> {
+        T store(StagedUpload staged) throws IOException;
+    }
+
+    public <T> T uploadNow(MultipartFile file, long maxBytes, UploadWork<T> work) {
+        StagedUpload staged = uploadStagingService.stage(file, maxBytes);
+        try {
+            return work.store(staged);
+        } catch (IOException e) {
+            throw new BadRequestException("Failed to upload file: " + e.getMessage());
+        } finally {
+            uploadStagingService.delete(staged);
+        }
+    }
+
+    // resourceId names the entity that holds the upload once the work is done
+    public <T> UploadJob submit(MultipartFile file, long maxBytes, UploadTarget target, UUID targetId, User owner,
+                                UploadWork<T> work, Function<T, UUID> resourceId) {
+        StagedUpload staged = uploadStagingService.stage(file, maxBytes);
+        try {
+            UploadJob job = uploadJobRepository.save(new UploadJob(target, targetId, owner.getId()));
+            UUID jobId = job.getId();
+            uploadExecutor.execute(() -> run(jobId, staged, work, resourceId));
+            return job;
+        } catch (RuntimeException e) {
+            // The staged file only belongs to the job once the job is queued
+            uploadStagingService.delete(staged);
+            throw e;
+        }
+    }
+
+    public UploadJob getJob(UUID jobId, User currentUser) {
+        UploadJob job = uploadJobRepository.findById(jobId)
+                .orElseThrow(() -> new NotFoundException("Upload job not found with id: " + jobId));
+        boolean isAdmin = currentUser.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ADMIN"));
+        if (!isAdmin && !job.getOwnerId().equals(currentUser.getId())) {
+            throw new NotFoundException("Upload job not found with id: " + jobId);
+        }
+        return job;
+    }
+
+    // Removing a replaced asset never delays the response; a failure only leaves an orphan behind
+    public void deleteLater(String publicId) {
+        uploadExecutor.execute(() -> {
+            try {
+                blobStore.delete(publicId);
+            } catch (IOException | RuntimeException e) {
+                logger.error("Failed to delete stored file {}: {}", publicId, e.getMessage());
+            }
+        });
+    }
+
+    private <T> void run(UUID jobId, StagedUpload staged, UploadWork<T> work, Function<T, UUID> resourceId) {
+        updateStatus(jobId, UploadStatus.RUNNING, null, null);
+        try {
+            T result = work.store(staged);
+            updateStatus(jobId, UploadStatus.COMPLETED, resourceId.apply(result), null);
+        } catch (Exception e) {
+            logger.error("Upload job {} failed: {}", jobId, e.getMessage());
+            updateStatus(jobId, UploadStatus.FAILED, null, e.getMessage());
+        } finally {
+            uploadStagingService.delete(staged);
+        }
+    }
+
+    private void updateStatus(UUID jobId, UploadStatus status, UUID resourceId, String error) {
+        uploadJobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(status);
+            job.setResourceId(resourceId);
+            job.setError(error != null && error.length() > 500 ? error.substring(0, 500) : error);
+            if (status == UploadStatus.COMPLETED || status == UploadStatus.FAILED) {
+                job.setCompletedAt(LocalDateTime.now());
+            }
+            uploadJobRepository.save(job);
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        uploadExecutor.shutdown();
+    }
+}
@@ -0,0 +1,154 @@
+package project_idea.idea.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import project_idea.idea.exceptions.BadRequestException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Copies an upload to a temp file in a single pass over its input stream, checking the leading
+ * bytes against the declared content type, enforcing the size limit on the bytes actually received
+ * and computing the SHA-256 digest on the way. Only one fixed buffer is held per upload.
+ */
+@Service
+public class UploadStagingService {
+    private static final int BUFFER_SIZE = 8192;
+    private static final int SNIFF_LENGTH = 12;
+
+    private static final List<Signature> SIGNATURES = List.of(
+        new Signature("image/jpeg", new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF}),
+        new Signature("image/png", new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'}),
+        new Signature("image/gif", new byte[]{'G', 'I', 'F', '8'}),
+        // WebP is a RIFF container: "RIFF", four size bytes, then "WEBP"
+        new Signature("image/webp", new byte[]{'R', 'I', 'F', 'F'}, new byte[]{'W', 'E', 'B', 'P'}),
+        new Signature("application/pdf", new byte[]{'%', 'P', 'D', 'F'}),
+        // DOCX and XLSX are zip containers, DOC and XLS are OLE compound files
+        new Signature("application/vnd.openxmlformats-officedocument.wordprocessingml.document", new byte[]{'P', 'K', 3, 4}),
+        new Signature("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", new byte[]{'P', 'K', 3, 4}),
+        new Signature("application/msword", new byte[]{(byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0}),
+        new Signature("application/vnd.ms-excel", new byte[]{(byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0})
+    );
+
+    private final Path stagingDir;
+
+    public UploadStagingService(@Value("${uploads.staging-dir:${java.io.tmpdir}}") String stagingDir) {
+        this.stagingDir = Path.of(stagingDir);
+    }
+
+    public record StagedUpload(Path path, long size, String sha256, String contentType) {}
+
+    public StagedUpload stage(MultipartFile file, long maxBytes) {
+        String contentType = file.getContentType();
+        Path staged = null;
+        try {
+            staged = Files.createTempFile(stagingDir, "upload-", ".tmp");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long size = 0;
+            boolean sniffed = false;
+
+            try (InputStream in = file.getInputStream(); OutputStream out = Files.newOutputStream(staged)) {
+                int read;
+                while ((read = in.readNBytes(buffer, 0, BUFFER_SIZE)) > 0) {
+                    if (!sniffed) {
+                        checkSignature(contentType, buffer, read);
+                        sniffed = true;
+                    }
+                    size += read;
+                    if (size > maxBytes) {
+                        throw new BadRequestException("File size must not exceed " + maxBytes / (1024 * 1024) + "MB");
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+            if (size == 0) {
+                throw new BadRequestException("No file was uploaded");
+            }
+            return new StagedUpload(staged, size, HexFormat.of().formatHex(digest.digest()), contentType);
+        } catch (IOException e) {
+            delete(staged);
+            throw new BadRequestException("Failed to receive file: " + e.getMessage());
+        } catch (NoSuchAlgorithmException e) {
+            delete(staged);
+            throw new IllegalStateException("SHA-256 is not available", e);
+        } catch (RuntimeException e) {
+            delete(staged);
+            throw e;
+        }
+    }
+
+    public void delete(StagedUpload upload) {
+        delete(upload.path());
+    }
+
+    // Types with a known signature must start with it; plain text must not look binary
+    private void checkSignature(String contentType, byte[] head, int length) {
+        if ("text/plain".equals(contentType)) {
+            for (int i = 0; i < length; i++) {
+                if (head[i] == 0) {
+                    throw new BadRequestException("File content does not match its type " + contentType);
+                }
+            }
+            return;
+        }
+        byte[] sniffed = Arrays.copyOf(head, Math.min(length, SNIFF_LENGTH));
+        boolean known = false;
+        for (Signature signature : SIGNATURES) {
+            if (signature.contentType().equals(contentType)) {
+                known = true;
+                if (signature.matches(sniffed)) {
+                    return;
+                }
+            }
+        }
+        if (known) {
+            throw new BadRequestException("File content does not match its type " + contentType);
+        }
+    }
+
+    private void delete(Path staged) {
+        if (staged == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(staged);
+        } catch (IOException ignored) {
+            // The temp directory is cleaned by the OS eventually
+        }
+    }
+
+    // formType, when set, must follow the magic bytes after a four-byte length field
+    private record Signature(String contentType, byte[] magic, byte[] formType) {
+        Signature(String contentType, byte[] magic) {
+            this(contentType, magic, null);
+        }
+
+        boolean matches(byte[] head) {
+            return startsWith(head, magic, 0) && (formType == null || startsWith(head, formType, magic.length + 4));
+        }
+
+        private static boolean startsWith(byte[] head, byte[] expected, int offset) {
+            if (head.length < offset + expected.length) {
+                return false;
+            }
+            for (int i = 0; i < expected.length; i++) {
+                if (head[offset + i] != expected[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
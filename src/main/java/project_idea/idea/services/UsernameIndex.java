@@ -0,0 +1,170 @@
+package project_idea.idea.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import project_idea.idea.repositories.SocialProfileRepository;
+import project_idea.idea.repositories.SocialProfileRepository.UsernameView;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Username typeahead: lower-cased usernames in a sorted array, searched with binary search.
+ * Readers use an immutable snapshot without locking; the rare writes (profile created or renamed)
+ * copy the arrays and publish a new snapshot.
+ */
+@Component
+public class UsernameIndex {
+    private static final Logger logger = LoggerFactory.getLogger(UsernameIndex.class);
+
+    @Autowired
+    private SocialProfileRepository socialProfileRepository;
+
+    private volatile Snapshot snapshot = new Snapshot(new String[0], new UUID[0]);
+    private final Map<UUID, String> indexedUsernames = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        long started = System.nanoTime();
+        List<Map.Entry<String, UUID>> entries = new ArrayList<>();
+        try (Stream<UsernameView> rows = socialProfileRepository.streamUsernames()) {
+            rows.forEach(row -> entries.add(Map.entry(row.getUsername().toLowerCase(Locale.ROOT), row.getId())));
+        }
+        entries.sort(Map.Entry.comparingByKey());
+
+        String[] keys = new String[entries.size()];
+        UUID[] ids = new UUID[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            keys[i] = entries.get(i).getKey();
+            ids[i] = entries.get(i).getValue();
+        }
+        synchronized (this) {
+            snapshot = new Snapshot(keys, ids);
+            indexedUsernames.clear();
+            for (int i = 0; i < keys.length; i++) {
+                indexedUsernames.put(ids[i], keys[i]);
+            }
+        }
+        logger.info("Loaded {} usernames into the typeahead index in {} ms", keys.length, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // Profile ids whose username starts with the prefix, in username order
+    public List<UUID> suggest(String prefix, int limit) {
+        Snapshot current = snapshot;
+        String from = prefix.toLowerCase(Locale.ROOT);
+        List<UUID> ids = new ArrayList<>(limit);
+        for (int i = current.lowerBound(from); i < current.keys.length && ids.size() < limit; i++) {
+            if (!current.keys[i].startsWith(from)) {
+                break;
+            }
+            ids.add(current.ids[i]);
+        }
+        return ids;
+    }
+
+    // Case-insensitive, so it may report a username as taken when only its capitalization is
+    public boolean isTaken(String username) {
+        Snapshot current = snapshot;
+        String key = username.toLowerCase(Locale.ROOT);
+        int position = current.lowerBound(key);
+        return position < current.keys.length && current.keys[position].equals(key);
+    }
+
+    // Called from the writing transaction; the index changes only once it commits
+    public void profileSaved(UUID profileId, String username) {
+        afterCommit(() -> update(profileId, username));
+    }
+
+    public void profileDeleted(UUID profileId) {
+        afterCommit(() -> update(profileId, null));
+    }
+
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private synchronized void update(UUID profileId, String username) {
+        String key = username != null ? username.toLowerCase(Locale.ROOT) : null;
+        String previous = indexedUsernames.get(profileId);
+        if (key != null ? key.equals(previous) : previous == null) {
+            return;
+        }
+        Snapshot current = snapshot;
+        if (previous != null) {
+            current = current.without(previous, profileId);
+            indexedUsernames.remove(profileId);
+        }
+        if (key != null) {
+            current = current.with(key, profileId);
+            indexedUsernames.put(profileId, key);
+        }
+        snapshot = current;
+    }
+
+    private record Snapshot(String[] keys, UUID[] ids) {
+        // First position whose key is >= the given one
+        int lowerBound(String key) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (keys[middle].compareTo(key) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        Snapshot with(String key, UUID id) {
+            int position = lowerBound(key);
+            String[] newKeys = new String[keys.length + 1];
+            UUID[] newIds = new UUID[ids.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, position);
+            System.arraycopy(ids, 0, newIds, 0, position);
+            newKeys[position] = key;
+            newIds[position] = id;
+            System.arraycopy(keys, position, newKeys, position + 1, keys.length - position);
+            System.arraycopy(ids, position, newIds, position + 1, ids.length - position);
+            return new Snapshot(newKeys, newIds);
+        }
+
+        Snapshot without(String key, UUID id) {
+            for (int position = lowerBound(key); position < keys.length && keys[position].equals(key); position++) {
+                if (ids[position].equals(id)) {
+                    String[] newKeys = new String[keys.length - 1];
+                    UUID[] newIds = new UUID[ids.length - 1];
+                    System.arraycopy(keys, 0, newKeys, 0, position);
+                    System.arraycopy(ids, 0, newIds, 0, position);
+                    System.arraycopy(keys, position + 1, newKeys, position, keys.length - position - 1);
+                    System.arraycopy(ids, position + 1, newIds, position, ids.length - position - 1);
+                    return new Snapshot(newKeys, newIds);
+                }
+            }
+            return this;
+        }
+    }
+}
@@ -2,32 +2,29 @@ package project_idea.idea.services;
 
 import com.github.javafaker.Faker;
 import org.springframework.stereotype.Service;
-import project_idea.idea.repositories.UsersRepository;
 
 @Service
 public class UsernameSuggestionService {
-    private final UsersRepository usersRepository;
+    // Candidates are checked in memory, so trying several costs no database round-trips
+    private static final int MAX_CANDIDATES = 20;
+
+    private final UsernameIndex usernameIndex;
     private final Faker faker;
 
-    public UsernameSuggestionService(UsersRepository usersRepository) {
-        this.usersRepository = usersRepository;
+    public UsernameSuggestionService(UsernameIndex usernameIndex) {
+        this.usernameIndex = usernameIndex;
         this.faker = new Faker();
     }
 
-    public String generateUsername(/*String email*/) {
-        /*String baseUsername = email.split("@")[0]
-                .replaceAll("[^a-zA-Z0-9]", "")
-                .toLowerCase();
-
-        if (!usersRepository.findBySocialProfile_Username(baseUsername).isPresent()) {
-            return baseUsername;
-        }*/
-
-        String username;
-        do {
+    // The index can lag behind other instances, so the unique constraint stays the final check (see UsersService.save)
+    public String generateUsername() {
+        String username = null;
+        for (int attempt = 0; attempt < MAX_CANDIDATES; attempt++) {
             username = faker.name().username() + faker.number().numberBetween(100, 999);
-        } while (usersRepository.findBySocialProfile_Username(username).isPresent());
-
+            if (!usernameIndex.isTaken(username)) {
+                return username;
+            }
+        }
         return username;
     }
 }
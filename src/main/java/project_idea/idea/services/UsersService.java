@@ -1,6 +1,7 @@
 package project_idea.idea.services;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -15,11 +16,15 @@ import project_idea.idea.exceptions.NotFoundException;
 import project_idea.idea.payloads.user.NewUserDTO;
 import project_idea.idea.payloads.user.PartialUserUpdateDTO;
 import project_idea.idea.repositories.UsersRepository;
+import project_idea.idea.security.PrincipalCache;
+import project_idea.idea.security.TokenRevocationRegistry;
 
 import java.util.UUID;
 
 @Service
 public class UsersService {
+    private static final int MAX_REGISTRATION_ATTEMPTS = 3;
+
     @Autowired
     private UsersRepository usersRepository;
     
@@ -35,6 +40,15 @@ public class UsersService {
     @Autowired
     private UsernameSuggestionService usernameSuggestionService;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    @Autowired
+    private FeedRankingService feedRankingService;
+
     @Transactional
     public User save(User user) {
         if (user == null) {
@@ -43,7 +57,7 @@ public class UsersService {
         return this.usersRepository.save(user);
     }
 
-    @Transactional
+    // Not transactional: every attempt is its own insert, so a unique constraint violation can be retried
     public User save(NewUserDTO body) {
         this.usersRepository.findByEmail(body.email()).ifPresent(
                 user -> {
@@ -51,41 +65,48 @@ public class UsersService {
                 }
         );
 
-        User newUser = new User(body.email(), bcrypt.encode(body.password()));
+        Role userRole = roleService.getRoleByName("USER");
+        String encodedPassword = bcrypt.encode(body.password());
+
+        for (int attempt = 1; ; attempt++) {
+            // Generate username using UsernameSuggestionService
+            String username = body.username() != null ? body.username() : usernameSuggestionService.generateUsername();
+            try {
+                return this.usersRepository.saveAndFlush(newUser(body, encodedPassword, username, userRole));
+            } catch (DataIntegrityViolationException e) {
+                // Also how a chosen username that is taken is reported; the constraint compares it case-sensitively
+                if (this.usersRepository.findByEmail(body.email()).isPresent()) {
+                    throw new BadRequestException("Email address " + body.email() + " is already in use!");
+                }
+                if (body.username() != null) {
+                    throw new BadRequestException("Username " + body.username() + " is already taken!");
+                }
+                if (attempt == MAX_REGISTRATION_ATTEMPTS) {
+                    throw new BadRequestException("Could not generate a unique username, please choose one");
+                }
+            }
+        }
+    }
+
+    // A failed insert leaves the entity with an assigned id, so each attempt starts from a fresh one
+    private User newUser(NewUserDTO body, String encodedPassword, String username, Role userRole) {
+        User newUser = new User(body.email(), encodedPassword);
         newUser.getSocialProfile().setFirstName(body.firstName());
         newUser.getSocialProfile().setLastName(body.lastName());
         newUser.getSocialProfile().updateAvatarUrl();
+        newUser.getSocialProfile().setUsername(username);
 
         if (body.preferredLanguage() != null) {
             newUser.setPreferredLanguage(body.preferredLanguage());
         }
 
-        // Set username for social profile
-        if (body.username() != null) {
-            // Check if username is already taken
-            this.usersRepository.findBySocialProfile_Username(body.username()).ifPresent(
-                user -> {
-                    throw new BadRequestException("Username " + body.username() + " is already taken!");
-                }
-            );
-            newUser.getSocialProfile().setUsername(body.username());
-        } else {
-            // Generate username using UsernameSuggestionService
-            newUser.getSocialProfile().setUsername(usernameSuggestionService.generateUsername(/*body.email()*/));
-        }
-        
         // Add interests if provided
         if (body.interests() != null) {
             body.interests().forEach(categoryId -> newUser.getInterests().add(categoryService.getCategoryById(categoryId)));
         }
 
-        Role userRole = roleService.getRoleByName("USER");
-
         newUser.getRoles().add(userRole);
-
-        User savedUser = this.usersRepository.save(newUser);
-
-        return savedUser;
+        return newUser;
     }
 
     public Page<User> findAll(int page, int size, String sortBy) {
@@ -126,12 +147,16 @@ public class UsersService {
             body.interests().forEach(categoryId -> found.getInterests().add(categoryService.getCategoryById(categoryId)));
         }
 
-        return this.usersRepository.save(found);
+        User updated = this.usersRepository.save(found);
+        principalCache.evict(userId);
+        feedRankingService.evict(userId);
+        return updated;
     }
 
     public void findByIdAndDelete(UUID userId) {
         User found = this.findById(userId);
         this.usersRepository.delete(found);
+        principalCache.evict(userId);
     }
 
     public User findByEmail(String email) {
@@ -142,14 +167,22 @@ public class UsersService {
         User user = findById(userId);
         Role role = roleService.getRoleById(roleId);
         user.getRoles().add(role);
-        return usersRepository.save(user);
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        User updated = usersRepository.save(user);
+        principalCache.evict(userId);
+        tokenRevocationRegistry.revokeBefore(userId, updated.getTokenVersion());
+        return updated;
     }
     
     public User removeRoleFromUser(UUID userId, UUID roleId) {
         User user = findById(userId);
         Role role = roleService.getRoleById(roleId);
         user.getRoles().remove(role);
-        return usersRepository.save(user);
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        User updated = usersRepository.save(user);
+        principalCache.evict(userId);
+        tokenRevocationRegistry.revokeBefore(userId, updated.getTokenVersion());
+        return updated;
     }
 
     public User findByIdAndPatch(UUID userId, PartialUserUpdateDTO body) {
@@ -187,6 +220,9 @@ public class UsersService {
             body.interests().forEach(categoryId -> found.getInterests().add(categoryService.getCategoryById(categoryId)));
         }
 
-        return this.usersRepository.save(found);
+        User updated = this.usersRepository.save(found);
+        principalCache.evict(userId);
+        feedRankingService.evict(userId);
+        return updated;
     }
 }
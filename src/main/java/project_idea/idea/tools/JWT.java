@@ -1,41 +1,80 @@
 package project_idea.idea.tools;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import project_idea.idea.entities.Role;
 import project_idea.idea.entities.User;
 import project_idea.idea.exceptions.UnauthorizedException;
 
+import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.List;
 
 @Component
 public class JWT {
+	private static final String ROLES_CLAIM = "roles";
+	private static final String STATUS_CLAIM = "status";
+	private static final String VERSION_CLAIM = "ver";
+
 	@Value("${jwt.secret}")
 	private String secret;
 
+	@Value("${jwt.fat-token.enabled:false}")
+	private boolean fatTokensEnabled;
+
+	// Built once: deriving the HMAC key and the parser on every request is pure overhead
+	private SecretKey signingKey;
+	private JwtParser parser;
+
+	@PostConstruct
+	void init() {
+		this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+		this.parser = Jwts.parser().verifyWith(signingKey).build();
+	}
+
 	public String createToken(User user) {
-		return Jwts.builder()
+		JwtBuilder builder = Jwts.builder()
 				.issuedAt(new Date(System.currentTimeMillis()))
 				.expiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 24 * 7))
-				.subject(String.valueOf(user.getId()))
-				.signWith(Keys.hmacShaKeyFor(secret.getBytes()))
-				.compact();
+				.subject(String.valueOf(user.getId()));
+
+		if (fatTokensEnabled) {
+			builder.claim(ROLES_CLAIM, user.getRoles().stream().map(Role::getName).toList())
+					.claim(STATUS_CLAIM, user.getStatus().name())
+					.claim(VERSION_CLAIM, user.getTokenVersion());
+		}
+
+		return builder.signWith(signingKey).compact();
 	}
 
-	public void verifyToken(String accessToken) {
+	// Verifies the signature and expiration and returns the claims from a single parse
+	public JWTClaims verifyAndExtract(String accessToken) {
 		try {
-			Jwts.parser()
-					.verifyWith(Keys.hmacShaKeyFor(secret.getBytes()))
-					.build().parse(accessToken);
-
+			Claims claims = parser.parseSignedClaims(accessToken).getPayload();
+			List<?> roles = claims.get(ROLES_CLAIM, List.class);
+			return new JWTClaims(
+					claims.getSubject(),
+					claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+					claims.getExpiration() != null ? claims.getExpiration().toInstant() : null,
+					roles != null ? roles.stream().map(String::valueOf).toList() : null,
+					claims.get(STATUS_CLAIM, String.class),
+					claims.get(VERSION_CLAIM, Long.class));
 		} catch (Exception ex) {
 			throw new UnauthorizedException("Bad or malformed JWT!");
 		}
 	}
 
+	public void verifyToken(String accessToken) {
+		verifyAndExtract(accessToken);
+	}
+
 	public String getIdFromToken(String accessToken) {
-		return Jwts.parser().verifyWith(Keys.hmacShaKeyFor(secret.getBytes())).build().parseSignedClaims(accessToken)
-				.getPayload().getSubject();
+		return verifyAndExtract(accessToken).subject();
 	}
-}
\ No newline at end of file
+}
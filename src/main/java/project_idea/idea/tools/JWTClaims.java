@@ -0,0 +1,18 @@
+package project_idea.idea.tools;
+
+import java.time.Instant;
+import java.util.List;
+
+public record JWTClaims(
+	String subject,
+	Instant issuedAt,
+	Instant expiration,
+	List<String> roles,
+	String status,
+	Long tokenVersion
+) {
+	// Fat tokens carry roles, status and token version so they can be authorized without a user lookup
+	public boolean isFatToken() {
+		return roles != null && status != null && tokenVersion != null;
+	}
+}
@@ -3,6 +3,7 @@ package project_idea.idea.utils;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 
 public class LanguageUtils {
@@ -10,6 +11,13 @@ public class LanguageUtils {
         "en", "es", "fr", "de", "it", "pt", "ru", "zh", "ja", "ko", "ar"
     ));
 
+    // PostgreSQL text search configurations; languages without a stemmer fall back to "simple"
+    private static final Map<String, String> TEXT_SEARCH_CONFIGS = Map.of(
+        "en", "english", "es", "spanish", "fr", "french", "de", "german", "it", "italian",
+        "pt", "portuguese", "ru", "russian", "ar", "arabic"
+    );
+    public static final String DEFAULT_TEXT_SEARCH_CONFIG = "simple";
+
     public static boolean isValidLanguageCode(String languageCode) {
         if (languageCode == null || languageCode.length() != 2) {
             return false;
@@ -31,6 +39,13 @@ public class LanguageUtils {
         return new Locale(languageCode).getDisplayLanguage(Locale.ENGLISH);
     }
 
+    public static String getTextSearchConfig(String languageCode) {
+        if (!isValidLanguageCode(languageCode)) {
+            throw new IllegalArgumentException("Invalid language code: " + languageCode);
+        }
+        return TEXT_SEARCH_CONFIGS.getOrDefault(languageCode.toLowerCase(), DEFAULT_TEXT_SEARCH_CONFIG);
+    }
+
     public static Set<String> getSupportedLanguages() {
         return new HashSet<>(SUPPORTED_LANGUAGES);
     }
@@ -0,0 +1,37 @@
+package project_idea.idea.utils;
+
+import project_idea.idea.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque continuation token for search results, which are ordered by (rank, id) instead of creation time.
+ * The rank is kept as the exact float PostgreSQL returned so the next page seeks from the same value.
+ */
+public record SearchCursor(float rank, UUID id) {
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = Float.floatToIntBits(rank) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Returns null for a blank token, which means "start from the best match"
+    public static SearchCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = raw.lastIndexOf(SEPARATOR);
+            return new SearchCursor(
+                Float.intBitsToFloat(Integer.parseInt(raw.substring(0, separatorIndex))),
+                UUID.fromString(raw.substring(separatorIndex + 1))
+            );
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package project_idea.idea.repositories;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import project_idea.idea.entities.BaseSurvey;
+import project_idea.idea.entities.Category;
+import project_idea.idea.entities.FeedInboxEntry;
+import project_idea.idea.entities.Inquiry;
+import project_idea.idea.entities.OpenEndedSurvey;
+import project_idea.idea.entities.Post;
+import project_idea.idea.entities.User;
+import project_idea.idea.enums.Visibility;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// First pages of the keyset feeds bind a null createdAt, which PostgreSQL must be able to type
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class FeedPageQueryTests {
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private PostRepository<Post> postRepository;
+
+	@Autowired
+	private BaseSurveyRepository baseSurveyRepository;
+
+	@Autowired
+	private FeedInboxRepository feedInboxRepository;
+
+	private User author;
+	private Category category;
+	private Inquiry newer;
+	private Inquiry older;
+
+	@BeforeEach
+	void createPosts() {
+		String suffix = UUID.randomUUID().toString();
+		author = new User("feed-" + suffix + "@example.com", "password");
+		author.getSocialProfile().setUsername("feed-" + suffix);
+		entityManager.persist(author);
+		category = entityManager.persist(new Category("feed-" + suffix, null, false));
+
+		older = entityManager.persist(inquiry("Older"));
+		entityManager.flush();
+		newer = entityManager.persist(inquiry("Newer"));
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void feedPageStartsFromTheNewestPost() {
+		List<Post> page = postRepository.findFeedPage(Visibility.DELETED, null, null, null, null, PageRequest.of(0, 1));
+
+		assertThat(page).hasSize(1);
+	}
+
+	@Test
+	void profileFeedPageStartsFromTheNewestPost() {
+		List<Post> first = postRepository.findProfileFeedPage(author.getSocialProfile().getId(), null, false,
+				null, null, PageRequest.of(0, 1));
+		List<Post> second = postRepository.findProfileFeedPage(author.getSocialProfile().getId(), null, false,
+				first.get(0).getCreatedAt(), first.get(0).getId(), PageRequest.of(0, 1));
+
+		assertThat(first).extracting(Post::getId).containsExactly(newer.getId());
+		assertThat(second).extracting(Post::getId).containsExactly(older.getId());
+	}
+
+	@Test
+	void categoryFeedPageStartsFromTheNewestPost() {
+		List<Post> page = postRepository.findCategoryFeedPage(Visibility.ACTIVE, List.of(category.getId()),
+				new UUID(0, 0), null, null, PageRequest.of(0, 10));
+
+		assertThat(page).extracting(Post::getId).containsExactly(newer.getId(), older.getId());
+	}
+
+	@Test
+	void surveyFeedPageStartsFromTheNewestSurvey() {
+		OpenEndedSurvey survey = new OpenEndedSurvey();
+		survey.setTitle("Survey");
+		survey.setLanguage("en");
+		survey.setAuthorProfile(entityManager.find(User.class, author.getId()).getSocialProfile());
+		entityManager.persistAndFlush(survey);
+
+		List<BaseSurvey> page = baseSurveyRepository.findSurveyFeedPage(List.of(OpenEndedSurvey.class), false, null,
+				null, null, PageRequest.of(0, 1));
+
+		assertThat(page).hasSize(1);
+	}
+
+	@Test
+	void inboxPageStartsFromTheNewestEntry() {
+		FeedInboxEntry entry = new FeedInboxEntry();
+		entry.setUserId(author.getId());
+		entry.setPostId(newer.getId());
+		entry.setPostCreatedAt(LocalDateTime.now());
+		entityManager.persistAndFlush(entry);
+
+		List<FeedInboxEntry> page = feedInboxRepository.findInboxPage(author.getId(), null, null, PageRequest.of(0, 10));
+
+		assertThat(page).extracting(FeedInboxEntry::getPostId).containsExactly(newer.getId());
+	}
+
+	private Inquiry inquiry(String title) {
+		Inquiry inquiry = new Inquiry();
+		inquiry.setTitle(title);
+		inquiry.setLanguage("en");
+		inquiry.setProfessionalRole("Developer");
+		inquiry.setAuthorProfile(author.getSocialProfile());
+		inquiry.setCategories(Set.of(category));
+		return inquiry;
+	}
+}
@@ -0,0 +1,99 @@
+package project_idea.idea.repositories;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import project_idea.idea.entities.Category;
+import project_idea.idea.entities.Inquiry;
+import project_idea.idea.entities.Post;
+import project_idea.idea.entities.User;
+import project_idea.idea.enums.Visibility;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Feed pages must cost the same number of statements whatever their size: to-one associations come
+// from the entity graph's join and collections from batch fetching, never one query per post.
+// Every post has its own author, so a per-author query would show up as a difference between the sizes.
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class PostRepositoryStatementCountTests {
+	private static final int POSTS = 20;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private PostRepository<Post> postRepository;
+
+	private String suffix;
+
+	@BeforeEach
+	void createPosts() {
+		suffix = UUID.randomUUID().toString();
+		for (int i = 0; i < POSTS; i++) {
+			User author = new User("statements-" + suffix + "-" + i + "@example.com", "password");
+			author.getSocialProfile().setUsername("statements-" + suffix + "-" + i);
+			author.getSocialProfile().getLinks().put("website", "https://example.com/" + i);
+			entityManager.persist(author);
+
+			Category first = entityManager.persist(new Category("statements-" + suffix + "-a" + i, null, false));
+			Category second = entityManager.persist(new Category("statements-" + suffix + "-b" + i, null, false));
+
+			Inquiry inquiry = new Inquiry();
+			inquiry.setTitle("Post " + i);
+			inquiry.setLanguage("en");
+			inquiry.setProfessionalRole("Developer");
+			inquiry.setAuthorProfile(author.getSocialProfile());
+			inquiry.setCategories(Set.of(first, second));
+			entityManager.persist(inquiry);
+		}
+		entityManager.flush();
+	}
+
+	@Test
+	void offsetPageOfOneAndPageOfTwentyUseTheSameNumberOfStatements() {
+		IntFunction<List<Post>> page = size -> postRepository.findByVisibilityNot(Visibility.DELETED,
+				PageRequest.of(0, size, Sort.by("createdAt").descending())).getContent();
+
+		assertThat(statementsForPage(page, POSTS)).isEqualTo(statementsForPage(page, 1));
+	}
+
+	@Test
+	void keysetPageOfOneAndPageOfTwentyUseTheSameNumberOfStatements() {
+		IntFunction<List<Post>> page = size -> postRepository.findFeedPage(Visibility.DELETED, null, null, null, null,
+				PageRequest.of(0, size));
+
+		assertThat(statementsForPage(page, POSTS)).isEqualTo(statementsForPage(page, 1));
+	}
+
+	private long statementsForPage(IntFunction<List<Post>> page, int size) {
+		entityManager.clear();
+		Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+				.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		List<Post> posts = page.apply(size);
+		assertThat(posts).hasSize(size);
+		// The newest posts are the ones created above, each by a different author
+		assertThat(posts).allSatisfy(post -> assertThat(post.getAuthorProfile().getUsername()).startsWith("statements-" + suffix));
+		// Touch what the card serialization reads
+		posts.forEach(post -> {
+			post.getAuthorProfile().getLinks().size();
+			post.getCategories().forEach(Category::getName);
+		});
+
+		return statistics.getPrepareStatementCount();
+	}
+}
@@ -0,0 +1,112 @@
+package project_idea.idea.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionTemplate;
+import project_idea.idea.entities.Attachment;
+import project_idea.idea.entities.Project;
+import project_idea.idea.entities.User;
+import project_idea.idea.repositories.ProjectRepository;
+import project_idea.idea.repositories.UsersRepository;
+import project_idea.idea.services.BlobStore.StoredBlob;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+// Identical attachments share one stored blob, which is only deleted together with the last row using it
+@SpringBootTest(properties = {"storage.backend=local", "storage.local.root=${java.io.tmpdir}/idea-blobs-test"})
+class AttachmentServiceTests {
+	@SpyBean
+	private BlobStore blobStore;
+
+	@Autowired
+	private AttachmentService attachmentService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private UsersRepository usersRepository;
+
+	@Autowired
+	private ProjectRepository projectRepository;
+
+	private User author;
+	private Project project;
+
+	@BeforeEach
+	void createProject() {
+		String suffix = UUID.randomUUID().toString();
+		transactionTemplate.executeWithoutResult(status -> {
+			author = new User("attachments-" + suffix + "@example.com", "password");
+			author.getSocialProfile().setUsername("attachments-" + suffix);
+			author = usersRepository.save(author);
+
+			project = new Project();
+			project.setTitle("Attachments " + suffix);
+			project.setLanguage("en");
+			project.setAuthorProfile(author.getSocialProfile());
+			project = projectRepository.save(project);
+		});
+	}
+
+	@AfterEach
+	void deleteProject() {
+		transactionTemplate.executeWithoutResult(status -> {
+			projectRepository.deleteById(project.getId());
+			usersRepository.deleteById(author.getId());
+		});
+	}
+
+	@Test
+	void sameContentIsStoredOnceAndDeletedWithTheLastAttachment() throws Exception {
+		// Unique content, so no other attachment in the database shares the hash
+		byte[] content = ("Meeting notes " + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8);
+
+		Attachment first = attachmentService.uploadAttachment(project.getId(), file(content), author);
+		Attachment second = attachmentService.uploadAttachment(project.getId(), file(content), author);
+
+		verify(blobStore, times(1)).upload(any(), any(), any());
+		assertThat(second.getId()).isNotEqualTo(first.getId());
+		assertThat(second.getCloudinaryPublicId()).isEqualTo(first.getCloudinaryPublicId());
+		StoredBlob blob = new StoredBlob(first.getCloudinaryUrl(), first.getCloudinaryPublicId());
+
+		attachmentService.deleteAttachment(first.getId(), author);
+
+		verify(blobStore, after(500).never()).delete(anyString());
+		assertThat(blobStore.open(blob).exists()).isTrue();
+
+		attachmentService.deleteAttachment(second.getId(), author);
+
+		verify(blobStore, timeout(5000)).delete(first.getCloudinaryPublicId());
+	}
+
+	@Test
+	void differentContentIsStoredSeparately() throws Exception {
+		Attachment first = attachmentService.uploadAttachment(project.getId(),
+				file(("First " + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8)), author);
+		Attachment second = attachmentService.uploadAttachment(project.getId(),
+				file(("Second " + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8)), author);
+
+		verify(blobStore, times(2)).upload(any(), any(), any());
+		assertThat(second.getCloudinaryPublicId()).isNotEqualTo(first.getCloudinaryPublicId());
+	}
+
+	private static MockMultipartFile file(byte[] content) {
+		return new MockMultipartFile("file", "notes.txt", "text/plain", content);
+	}
+}
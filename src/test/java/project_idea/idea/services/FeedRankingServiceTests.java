@@ -0,0 +1,111 @@
+package project_idea.idea.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import project_idea.idea.entities.Inquiry;
+import project_idea.idea.entities.Post;
+import project_idea.idea.entities.SocialProfile;
+import project_idea.idea.entities.User;
+import project_idea.idea.enums.Visibility;
+import project_idea.idea.repositories.PostRepository;
+import project_idea.idea.utils.FeedCursor;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// More candidates than ranked slots: the posts that lose the heap must still be served, once, by the fallback
+@DataJpaTest(properties = {"feed.ranking.candidate-limit=8", "feed.ranking.ranked-limit=3"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(FeedRankingService.class)
+class FeedRankingServiceTests {
+	private static final int POSTS = 12;
+	private static final int PAGE_SIZE = 5;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private PostRepository<Post> postRepository;
+
+	@Autowired
+	private FeedRankingService feedRankingService;
+
+	private User reader;
+	private List<UUID> seeded;
+	private UUID ownPostId;
+	private UUID deletedPostId;
+
+	@BeforeEach
+	void createPosts() {
+		reader = user("reader");
+		User author = user("author");
+
+		seeded = new ArrayList<>();
+		for (int i = 0; i < POSTS; i++) {
+			seeded.add(entityManager.persistAndFlush(inquiry("Post " + i, author.getSocialProfile())).getId());
+		}
+		ownPostId = entityManager.persistAndFlush(inquiry("Own", reader.getSocialProfile())).getId();
+		Inquiry deleted = inquiry("Deleted", author.getSocialProfile());
+		deleted.setVisibility(Visibility.DELETED);
+		deletedPostId = entityManager.persistAndFlush(deleted).getId();
+	}
+
+	@Test
+	void offsetPagesServeEveryActivePostExactlyOnce() {
+		List<UUID> served = new ArrayList<>();
+		for (int page = 0; ; page++) {
+			List<UUID> ids = feedRankingService.getSuggestedIds(reader, (long) page * PAGE_SIZE, PAGE_SIZE);
+			if (ids.isEmpty()) break;
+			served.addAll(ids);
+		}
+
+		assertServedOnce(served);
+		assertThat(feedRankingService.countSuggested(reader)).isEqualTo(served.size());
+	}
+
+	@Test
+	void cursorPagesServeEveryActivePostExactlyOnce() {
+		List<UUID> served = new ArrayList<>();
+		FeedCursor after = null;
+		while (true) {
+			List<UUID> ids = feedRankingService.getSuggestedIdsAfter(reader, after, PAGE_SIZE + 1);
+			List<UUID> page = ids.subList(0, Math.min(PAGE_SIZE, ids.size()));
+			served.addAll(page);
+			if (ids.size() <= PAGE_SIZE) break;
+			Post last = postRepository.findById(page.get(page.size() - 1)).orElseThrow();
+			after = new FeedCursor(last.getCreatedAt(), last.getId());
+		}
+
+		assertServedOnce(served);
+	}
+
+	private void assertServedOnce(List<UUID> served) {
+		assertThat(new HashSet<>(served)).hasSameSizeAs(served);
+		assertThat(served).containsAll(seeded).doesNotContain(ownPostId, deletedPostId);
+	}
+
+	private User user(String prefix) {
+		String suffix = UUID.randomUUID().toString();
+		User user = new User(prefix + "-" + suffix + "@example.com", "password");
+		user.getSocialProfile().setUsername(prefix + "-" + suffix);
+		return entityManager.persist(user);
+	}
+
+	private Inquiry inquiry(String title, SocialProfile author) {
+		Inquiry inquiry = new Inquiry();
+		inquiry.setTitle(title);
+		inquiry.setLanguage("en");
+		inquiry.setProfessionalRole("Developer");
+		inquiry.setAuthorProfile(author);
+		return inquiry;
+	}
+}
@@ -0,0 +1,83 @@
+package project_idea.idea.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import project_idea.idea.entities.Category;
+import project_idea.idea.entities.Inquiry;
+import project_idea.idea.entities.Post;
+import project_idea.idea.entities.User;
+import project_idea.idea.repositories.CategoryRepository;
+import project_idea.idea.repositories.PostRepository;
+import project_idea.idea.repositories.UsersRepository;
+import project_idea.idea.services.PostSearchEngine.SearchHits;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Starting the context runs the startup rebuild outside any request, where lazy categories used to fail
+@SpringBootTest(properties = "search.engine=memory")
+class InMemoryPostSearchEngineTests {
+	@Autowired
+	private InMemoryPostSearchEngine searchEngine;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private UsersRepository usersRepository;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private PostRepository<Post> postRepository;
+
+	private String token;
+	private User author;
+	private Category category;
+	private Inquiry inquiry;
+
+	@BeforeEach
+	void createPost() {
+		token = "zq" + UUID.randomUUID().toString().replace("-", "");
+		transactionTemplate.executeWithoutResult(status -> {
+			author = new User("search-" + token + "@example.com", "password");
+			author.getSocialProfile().setUsername("search-" + token);
+			author = usersRepository.save(author);
+			category = categoryRepository.save(new Category("search-" + token, null, false));
+
+			inquiry = new Inquiry();
+			inquiry.setTitle("Indexed " + token);
+			inquiry.setLanguage("en");
+			inquiry.setProfessionalRole("Developer");
+			inquiry.setAuthorProfile(author.getSocialProfile());
+			inquiry.setCategories(Set.of(category));
+			inquiry = postRepository.save(inquiry);
+		});
+	}
+
+	@AfterEach
+	void deletePost() {
+		transactionTemplate.executeWithoutResult(status -> {
+			postRepository.deleteById(inquiry.getId());
+			categoryRepository.deleteById(category.getId());
+			usersRepository.deleteById(author.getId());
+		});
+	}
+
+	@Test
+	void rebuildIndexesCommittedPostsWithTheirCategories() {
+		searchEngine.rebuild();
+
+		SearchHits hits = searchEngine.search(token, null, null, 10, true);
+
+		assertThat(hits.ids()).containsExactly(inquiry.getId());
+		assertThat(hits.facets().get(PostSearchEngine.FACET_CATEGORY)).containsEntry(category.getId().toString(), 1L);
+	}
+}
@@ -0,0 +1,190 @@
+package project_idea.idea.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import project_idea.idea.entities.Role;
+import project_idea.idea.entities.UploadJob;
+import project_idea.idea.entities.User;
+import project_idea.idea.enums.UploadStatus;
+import project_idea.idea.enums.UploadTarget;
+import project_idea.idea.exceptions.BadRequestException;
+import project_idea.idea.exceptions.NotFoundException;
+import project_idea.idea.repositories.UploadJobRepository;
+import project_idea.idea.services.BlobStore.StoredBlob;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Runs against LocalBlobStore in a temp directory, the stand-in for Cloudinary, and an in-memory job table
+class UploadJobServiceTests {
+	private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13};
+
+	@TempDir
+	Path stagingDir;
+
+	@TempDir
+	Path blobRoot;
+
+	private final Map<UUID, UploadJob> jobs = new ConcurrentHashMap<>();
+	private UploadJobService uploadJobService;
+	private LocalBlobStore blobStore;
+	private User owner;
+
+	@BeforeEach
+	void createService() {
+		UploadJobRepository uploadJobRepository = mock(UploadJobRepository.class);
+		when(uploadJobRepository.save(any(UploadJob.class))).thenAnswer(invocation -> {
+			UploadJob job = invocation.getArgument(0);
+			if (job.getId() == null) {
+				ReflectionTestUtils.setField(job, "id", UUID.randomUUID());
+			}
+			jobs.put(job.getId(), job);
+			return job;
+		});
+		when(uploadJobRepository.findById(any(UUID.class)))
+				.thenAnswer(invocation -> Optional.ofNullable(jobs.get(invocation.<UUID>getArgument(0))));
+
+		blobStore = new LocalBlobStore(blobRoot.toString(), "/blobs/");
+		uploadJobService = new UploadJobService(1, 10);
+		ReflectionTestUtils.setField(uploadJobService, "uploadJobRepository", uploadJobRepository);
+		ReflectionTestUtils.setField(uploadJobService, "blobStore", blobStore);
+		ReflectionTestUtils.setField(uploadJobService, "uploadStagingService", new UploadStagingService(stagingDir.toString()));
+
+		owner = user();
+	}
+
+	@AfterEach
+	void shutdown() {
+		uploadJobService.shutdown();
+	}
+
+	@Test
+	void uploadNowStoresTheFileAndDeletesTheStagedCopy() throws IOException {
+		StoredBlob blob = uploadJobService.uploadNow(png(), 1024,
+				staged -> blobStore.upload(staged.path(), "posts", "image"));
+
+		assertThat(blobStore.open(blob).getContentAsByteArray()).isEqualTo(PNG);
+		assertThat(stagedFiles()).isZero();
+	}
+
+	@Test
+	void uploadNowReportsAFailedUploadAsBadRequest() throws IOException {
+		assertThatThrownBy(() -> uploadJobService.uploadNow(png(), 1024, staged -> {
+			throw new IOException("storage unavailable");
+		})).isInstanceOf(BadRequestException.class);
+
+		assertThat(stagedFiles()).isZero();
+	}
+
+	@Test
+	void submittedJobCompletesWithTheResourceId() throws Exception {
+		UUID resourceId = UUID.randomUUID();
+		UploadJob job = uploadJobService.submit(png(), 1024, UploadTarget.FEATURED_IMAGE, UUID.randomUUID(), owner,
+				staged -> blobStore.upload(staged.path(), "posts", "image"), blob -> resourceId);
+
+		UploadJob finished = awaitCompletion(job.getId());
+
+		assertThat(finished.getStatus()).isEqualTo(UploadStatus.COMPLETED);
+		assertThat(finished.getResourceId()).isEqualTo(resourceId);
+		assertThat(finished.getCompletedAt()).isNotNull();
+		assertThat(stagedFiles()).isZero();
+	}
+
+	@Test
+	void submittedJobFailsWithTheError() throws Exception {
+		UploadJob job = uploadJobService.submit(png(), 1024, UploadTarget.FEATURED_IMAGE, UUID.randomUUID(), owner,
+				staged -> {
+					throw new IOException("storage unavailable");
+				}, blob -> null);
+
+		UploadJob finished = awaitCompletion(job.getId());
+
+		assertThat(finished.getStatus()).isEqualTo(UploadStatus.FAILED);
+		assertThat(finished.getError()).isEqualTo("storage unavailable");
+		assertThat(stagedFiles()).isZero();
+	}
+
+	@Test
+	void submitDeletesTheStagedFileWhenTheJobCannotBeSaved() throws IOException {
+		UploadJobRepository failing = mock(UploadJobRepository.class);
+		when(failing.save(any(UploadJob.class))).thenThrow(new IllegalStateException("database unavailable"));
+		ReflectionTestUtils.setField(uploadJobService, "uploadJobRepository", failing);
+
+		assertThatThrownBy(() -> uploadJobService.submit(png(), 1024, UploadTarget.FEATURED_IMAGE, UUID.randomUUID(), owner,
+				staged -> null, blob -> null)).isInstanceOf(IllegalStateException.class);
+
+		assertThat(stagedFiles()).isZero();
+	}
+
+	@Test
+	void onlyTheOwnerOrAnAdminCanReadAJob() throws Exception {
+		UploadJob job = uploadJobService.submit(png(), 1024, UploadTarget.FEATURED_IMAGE, UUID.randomUUID(), owner,
+				staged -> blobStore.upload(staged.path(), "posts", "image"), blob -> null);
+		User stranger = user();
+		User admin = user();
+		admin.getRoles().add(new Role("ADMIN", null, true));
+
+		assertThat(uploadJobService.getJob(job.getId(), owner).getId()).isEqualTo(job.getId());
+		assertThat(uploadJobService.getJob(job.getId(), admin).getId()).isEqualTo(job.getId());
+		assertThatThrownBy(() -> uploadJobService.getJob(job.getId(), stranger)).isInstanceOf(NotFoundException.class);
+		assertThatThrownBy(() -> uploadJobService.getJob(UUID.randomUUID(), owner)).isInstanceOf(NotFoundException.class);
+	}
+
+	@Test
+	void deleteLaterRemovesTheStoredFile() throws Exception {
+		StoredBlob blob = uploadJobService.uploadNow(png(), 1024,
+				staged -> blobStore.upload(staged.path(), "posts", "image"));
+
+		uploadJobService.deleteLater(blob.publicId());
+
+		for (int i = 0; i < 100 && blobStore.open(blob).exists(); i++) {
+			Thread.sleep(20);
+		}
+		assertThat(blobStore.open(blob).exists()).isFalse();
+	}
+
+	// The worker deletes the staged file after recording the outcome, so both are waited for
+	private UploadJob awaitCompletion(UUID jobId) throws InterruptedException, IOException {
+		for (int i = 0; i < 100; i++) {
+			UploadJob job = jobs.get(jobId);
+			boolean finished = job.getStatus() == UploadStatus.COMPLETED || job.getStatus() == UploadStatus.FAILED;
+			if (finished && stagedFiles() == 0) {
+				return job;
+			}
+			Thread.sleep(20);
+		}
+		throw new AssertionError("Upload job " + jobId + " did not finish");
+	}
+
+	private long stagedFiles() throws IOException {
+		try (Stream<Path> files = Files.list(stagingDir)) {
+			return files.count();
+		}
+	}
+
+	private static MockMultipartFile png() {
+		return new MockMultipartFile("file", "image.png", "image/png", PNG);
+	}
+
+	private static User user() {
+		User user = new User(UUID.randomUUID() + "@example.com", "password");
+		ReflectionTestUtils.setField(user, "id", UUID.randomUUID());
+		return user;
+	}
+}
@@ -0,0 +1,146 @@
+package project_idea.idea.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.mock.web.MockMultipartFile;
+import project_idea.idea.exceptions.BadRequestException;
+import project_idea.idea.services.UploadStagingService.StagedUpload;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UploadStagingServiceTests {
+	private static final byte[] JPEG = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 0, 0x10};
+	private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13};
+	private static final byte[] GIF = {'G', 'I', 'F', '8', '9', 'a'};
+	private static final byte[] WEBP = {'R', 'I', 'F', 'F', 0x24, 0, 0, 0, 'W', 'E', 'B', 'P', 'V', 'P', '8', ' '};
+	private static final byte[] WAV = {'R', 'I', 'F', 'F', 0x24, 0, 0, 0, 'W', 'A', 'V', 'E', 'f', 'm', 't', ' '};
+	private static final byte[] PDF = {'%', 'P', 'D', 'F', '-', '1', '.', '7'};
+	private static final byte[] ZIP = {'P', 'K', 3, 4, 20, 0};
+	private static final byte[] OLE = {(byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0, (byte) 0xA1, (byte) 0xB1};
+
+	@TempDir
+	Path stagingDir;
+
+	private UploadStagingService uploadStagingService;
+
+	@BeforeEach
+	void createService() {
+		uploadStagingService = new UploadStagingService(stagingDir.toString());
+	}
+
+	static Stream<Arguments> signatures() {
+		return Stream.of(
+				Arguments.of("image/jpeg", JPEG),
+				Arguments.of("image/png", PNG),
+				Arguments.of("image/gif", GIF),
+				Arguments.of("image/webp", WEBP),
+				Arguments.of("application/pdf", PDF),
+				Arguments.of("application/vnd.openxmlformats-officedocument.wordprocessingml.document", ZIP),
+				Arguments.of("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", ZIP),
+				Arguments.of("application/msword", OLE),
+				Arguments.of("application/vnd.ms-excel", OLE)
+		);
+	}
+
+	@ParameterizedTest
+	@MethodSource("signatures")
+	void acceptsContentMatchingItsType(String contentType, byte[] content) throws IOException {
+		StagedUpload staged = uploadStagingService.stage(file(contentType, content), 1024);
+
+		assertThat(staged.size()).isEqualTo(content.length);
+		assertThat(staged.contentType()).isEqualTo(contentType);
+		assertThat(Files.readAllBytes(staged.path())).isEqualTo(content);
+	}
+
+	@ParameterizedTest
+	@MethodSource("signatures")
+	void rejectsContentOfAnotherType(String contentType, byte[] content) throws IOException {
+		byte[] other = contentType.equals("application/pdf") ? PNG : PDF;
+
+		assertThatThrownBy(() -> uploadStagingService.stage(file(contentType, other), 1024))
+				.isInstanceOf(BadRequestException.class);
+		assertThat(stagedFiles()).isZero();
+	}
+
+	@Test
+	void rejectsRiffFilesThatAreNotWebp() throws IOException {
+		assertThatThrownBy(() -> uploadStagingService.stage(file("image/webp", WAV), 1024))
+				.isInstanceOf(BadRequestException.class);
+		assertThat(stagedFiles()).isZero();
+	}
+
+	@Test
+	void rejectsWebpTooShortToHoldItsFormType() {
+		assertThatThrownBy(() -> uploadStagingService.stage(file("image/webp", Arrays.copyOf(WEBP, 8)), 1024))
+				.isInstanceOf(BadRequestException.class);
+	}
+
+	@Test
+	void acceptsPlainText() {
+		StagedUpload staged = uploadStagingService.stage(file("text/plain", "hello".getBytes(StandardCharsets.UTF_8)), 1024);
+
+		assertThat(staged.size()).isEqualTo(5);
+	}
+
+	@Test
+	void rejectsPlainTextWithNulBytes() throws IOException {
+		assertThatThrownBy(() -> uploadStagingService.stage(file("text/plain", new byte[]{'a', 0, 'b'}), 1024))
+				.isInstanceOf(BadRequestException.class);
+		assertThat(stagedFiles()).isZero();
+	}
+
+	@Test
+	void rejectsUploadsOverTheLimitAndDeletesTheTempFile() throws IOException {
+		byte[] content = Arrays.copyOf(PNG, 20_000);
+
+		assertThatThrownBy(() -> uploadStagingService.stage(file("image/png", content), 10_000))
+				.isInstanceOf(BadRequestException.class);
+		assertThat(stagedFiles()).isZero();
+	}
+
+	@Test
+	void rejectsEmptyUploads() throws IOException {
+		assertThatThrownBy(() -> uploadStagingService.stage(file("image/png", new byte[0]), 1024))
+				.isInstanceOf(BadRequestException.class)
+				.hasMessage("No file was uploaded");
+		assertThat(stagedFiles()).isZero();
+	}
+
+	@Test
+	void computesTheSha256OfTheContent() {
+		StagedUpload staged = uploadStagingService.stage(file("text/plain", "abc".getBytes(StandardCharsets.UTF_8)), 1024);
+
+		assertThat(staged.sha256()).isEqualTo("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
+	}
+
+	@Test
+	void deleteRemovesTheStagedFile() throws IOException {
+		StagedUpload staged = uploadStagingService.stage(file("image/png", PNG), 1024);
+
+		uploadStagingService.delete(staged);
+
+		assertThat(stagedFiles()).isZero();
+	}
+
+	private long stagedFiles() throws IOException {
+		try (Stream<Path> files = Files.list(stagingDir)) {
+			return files.count();
+		}
+	}
+
+	private static MockMultipartFile file(String contentType, byte[] content) {
+		return new MockMultipartFile("file", "upload", contentType, content);
+	}
+}
@@ -0,0 +1,94 @@
+package project_idea.idea.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Outside a transaction the index applies changes immediately, so no Spring context is needed
+class UsernameIndexTests {
+	private final UUID alice = UUID.randomUUID();
+	private final UUID bob = UUID.randomUUID();
+	private final UUID carol = UUID.randomUUID();
+
+	private UsernameIndex index;
+
+	@BeforeEach
+	void createIndex() {
+		index = new UsernameIndex();
+		index.profileSaved(bob, "bob");
+	}
+
+	@Test
+	void insertsAtTheStart() {
+		index.profileSaved(alice, "alice");
+
+		assertThat(index.suggest("", 10)).containsExactly(alice, bob);
+	}
+
+	@Test
+	void insertsInTheMiddle() {
+		index.profileSaved(alice, "alice");
+		index.profileSaved(carol, "carol");
+		UUID bella = UUID.randomUUID();
+		index.profileSaved(bella, "bella");
+
+		assertThat(index.suggest("", 10)).containsExactly(alice, bella, bob, carol);
+	}
+
+	@Test
+	void insertsAtTheEnd() {
+		index.profileSaved(carol, "carol");
+
+		assertThat(index.suggest("", 10)).containsExactly(bob, carol);
+	}
+
+	@Test
+	void renameMovesTheProfile() {
+		index.profileSaved(carol, "carol");
+		index.profileSaved(bob, "zed");
+
+		assertThat(index.suggest("", 10)).containsExactly(carol, bob);
+		assertThat(index.isTaken("bob")).isFalse();
+		assertThat(index.isTaken("zed")).isTrue();
+	}
+
+	@Test
+	void keepsTwoIdsWithTheSameKey() {
+		UUID otherBob = UUID.randomUUID();
+		index.profileSaved(otherBob, "Bob");
+
+		assertThat(index.suggest("bob", 10)).containsExactlyInAnyOrder(bob, otherBob);
+
+		index.profileDeleted(bob);
+
+		assertThat(index.suggest("bob", 10)).containsExactly(otherBob);
+		assertThat(index.isTaken("bob")).isTrue();
+	}
+
+	@Test
+	void removingAnUnknownIdChangesNothing() {
+		index.profileDeleted(UUID.randomUUID());
+
+		assertThat(index.suggest("", 10)).containsExactly(bob);
+	}
+
+	@Test
+	void matchesAPrefixAtTheEndOfTheArray() {
+		index.profileSaved(alice, "alice");
+		index.profileSaved(carol, "zoe");
+
+		assertThat(index.suggest("zo", 10)).containsExactly(carol);
+		assertThat(index.suggest("zz", 10)).isEmpty();
+	}
+
+	@Test
+	void suggestIsCaseInsensitiveAndLimited() {
+		index.profileSaved(alice, "Bobby");
+		index.profileSaved(carol, "bobcat");
+
+		assertThat(index.suggest("BOB", 2)).containsExactly(bob, alice);
+	}
+}
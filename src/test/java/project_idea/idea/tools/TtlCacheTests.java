@@ -0,0 +1,66 @@
+package project_idea.idea.tools;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TtlCacheTests {
+
+	@Test
+	void returnsCachedValuesAndCountsHitsAndMisses() {
+		TtlCache<String, Integer> cache = new TtlCache<>(10, Duration.ofMinutes(1));
+		cache.put("a", 1);
+
+		assertThat(cache.get("a")).isEqualTo(1);
+		assertThat(cache.get("b")).isNull();
+		assertThat(cache.getHits()).isEqualTo(1);
+		assertThat(cache.getMisses()).isEqualTo(1);
+	}
+
+	@Test
+	void expiresEntriesAfterTheTtl() throws InterruptedException {
+		TtlCache<String, Integer> cache = new TtlCache<>(10, Duration.ofMillis(20));
+		cache.put("a", 1);
+
+		Thread.sleep(50);
+
+		assertThat(cache.get("a")).isNull();
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	void dropsTheLeastRecentlyUsedEntryWhenFull() {
+		TtlCache<String, Integer> cache = new TtlCache<>(2, Duration.ofMinutes(1));
+		cache.put("a", 1);
+		cache.put("b", 2);
+		// Reading "a" makes "b" the eldest
+		cache.get("a");
+		cache.put("c", 3);
+
+		assertThat(cache.get("a")).isEqualTo(1);
+		assertThat(cache.get("b")).isNull();
+		assertThat(cache.get("c")).isEqualTo(3);
+		assertThat(cache.size()).isEqualTo(2);
+	}
+
+	@Test
+	void evictCountsOnlyPresentKeys() {
+		TtlCache<String, Integer> cache = new TtlCache<>(10, Duration.ofMinutes(1));
+		cache.put("a", 1);
+
+		cache.evict("a");
+		cache.evict("missing");
+
+		assertThat(cache.get("a")).isNull();
+		assertThat(cache.getEvictions()).isEqualTo(1);
+	}
+
+	@Test
+	void rejectsNonPositiveSize() {
+		assertThatThrownBy(() -> new TtlCache<String, Integer>(0, Duration.ofMinutes(1)))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
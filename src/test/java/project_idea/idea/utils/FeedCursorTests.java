@@ -0,0 +1,39 @@
+package project_idea.idea.utils;
+
+import org.junit.jupiter.api.Test;
+import project_idea.idea.exceptions.BadRequestException;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FeedCursorTests {
+
+	@Test
+	void roundTripsCreatedAtAndId() {
+		FeedCursor cursor = new FeedCursor(LocalDateTime.of(2024, 5, 17, 9, 30, 12, 123456000), UUID.randomUUID());
+
+		assertThat(FeedCursor.decode(cursor.encode())).isEqualTo(cursor);
+	}
+
+	@Test
+	void roundTripsWholeSeconds() {
+		// LocalDateTime.toString drops zero seconds, which parse must still accept
+		FeedCursor cursor = new FeedCursor(LocalDateTime.of(2024, 5, 17, 9, 30), UUID.randomUUID());
+
+		assertThat(FeedCursor.decode(cursor.encode())).isEqualTo(cursor);
+	}
+
+	@Test
+	void blankTokenMeansFirstPage() {
+		assertThat(FeedCursor.decode(null)).isNull();
+		assertThat(FeedCursor.decode(" ")).isNull();
+	}
+
+	@Test
+	void rejectsMalformedTokens() {
+		assertThatThrownBy(() -> FeedCursor.decode("not-a-cursor")).isInstanceOf(BadRequestException.class);
+	}
+}
@@ -0,0 +1,41 @@
+package project_idea.idea.utils;
+
+import org.junit.jupiter.api.Test;
+import project_idea.idea.exceptions.BadRequestException;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SearchCursorTests {
+
+	@Test
+	void roundTripsTheExactRank() {
+		// A rank with no short decimal form must come back bit for bit, or the next page would seek from the wrong row
+		SearchCursor cursor = new SearchCursor(Math.nextUp(0.0607927f), UUID.randomUUID());
+
+		SearchCursor decoded = SearchCursor.decode(cursor.encode());
+
+		assertThat(Float.floatToIntBits(decoded.rank())).isEqualTo(Float.floatToIntBits(cursor.rank()));
+		assertThat(decoded.id()).isEqualTo(cursor.id());
+	}
+
+	@Test
+	void roundTripsZeroRank() {
+		SearchCursor cursor = new SearchCursor(0f, UUID.randomUUID());
+
+		assertThat(SearchCursor.decode(cursor.encode())).isEqualTo(cursor);
+	}
+
+	@Test
+	void blankTokenMeansFirstPage() {
+		assertThat(SearchCursor.decode(null)).isNull();
+		assertThat(SearchCursor.decode("")).isNull();
+	}
+
+	@Test
+	void rejectsMalformedTokens() {
+		assertThatThrownBy(() -> SearchCursor.decode("bm90IGEgY3Vyc29y")).isInstanceOf(BadRequestException.class);
+	}
+}